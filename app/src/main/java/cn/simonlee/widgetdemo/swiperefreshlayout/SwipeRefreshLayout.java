@@ -20,59 +20,45 @@ public class SwipeRefreshLayout extends cn.simonlee.widget.swiperefreshlayout.Sw
 
     private Animation mRotateAnimation;
 
-    private OnRefreshListener mOuterOnRefreshListener;
+    private View mHeaderImage, mFooterImage;
 
-    private OnRefreshListener mInnerOnRefreshListener = new OnRefreshListener() {
+    private TextView mHeaderText, mFooterText;
+
+    private OnRefreshProgressListener mInnerOnRefreshProgressListener = new OnRefreshProgressListener() {
         @Override
-        public void onHeaderRefresh(cn.simonlee.widget.swiperefreshlayout.SwipeRefreshLayout parent, boolean isChanged, int state, float offset) {
-            if (mOuterOnRefreshListener != null) {
-                mOuterOnRefreshListener.onHeaderRefresh(parent, isChanged, state, offset);
-            }
-            final View headerRefreshView = parent.getHeaderRefreshView();
-            final View loadingImage = headerRefreshView.findViewById(R.id.refresh_image);
-            final TextView loadingText = headerRefreshView.findViewById(R.id.refresh_text);
+        public void onRefreshStateChanged(cn.simonlee.widget.swiperefreshlayout.SwipeRefreshLayout parent, View refreshView, int state) {
+            final boolean isHeader = parent.isHeaderRefreshView(refreshView);
+            bindRefreshView(refreshView, isHeader);
+            final View loadingImage = isHeader ? mHeaderImage : mFooterImage;
+            final TextView loadingText = isHeader ? mHeaderText : mFooterText;
 
             setVisibility(loadingImage, state == STATE_UNABLE ? View.GONE : View.VISIBLE);
 
             switch (state) {
                 case STATE_UNABLE: {
-                    if (isChanged) {
-                        loadingText.setText("没网了，快充钱");
-                    }
+                    loadingText.setText(isHeader ? "没网了，快充钱" : "全部加载完啦");
                     break;
                 }
                 case STATE_CLOSE: {
-                    if (isChanged) {
-                        loadingImage.clearAnimation();
-                    }
+                    loadingImage.clearAnimation();
                     break;
                 }
                 case STATE_OPEN: {
-                    if (isChanged) {
-                        loadingText.setText("下拉刷新");
-                    }
-                    loadingImage.setRotation(-360F * Math.abs(offset) / headerRefreshView.getHeight());
+                    loadingText.setText(isHeader ? "下拉刷新" : "上拉加载更多");
                     break;
                 }
                 case STATE_READY: {
-                    if (isChanged) {
-                        loadingText.setText("释放后刷新");
-                    }
-                    loadingImage.setRotation(-360F * Math.abs(offset) / headerRefreshView.getHeight());
+                    loadingText.setText(isHeader ? "释放后刷新" : "释放后加载");
                     break;
                 }
                 case STATE_REFRESHING: {
-                    if (isChanged) {
-                        loadingText.setText("正在刷新...");
-                        loadingImage.startAnimation(mRotateAnimation);
-                    }
+                    loadingText.setText(isHeader ? "正在刷新..." : "正在加载...");
+                    loadingImage.startAnimation(mRotateAnimation);
                     break;
                 }
                 case STATE_REFRESH_COMPLETE: {
-                    if (isChanged) {
-                        loadingText.setText("刷新完毕");
-                        loadingImage.clearAnimation();
-                    }
+                    loadingText.setText(isHeader ? "刷新完毕" : "加载完毕");
+                    loadingImage.clearAnimation();
                     loadingImage.setRotation(0F);
                     break;
                 }
@@ -80,58 +66,11 @@ public class SwipeRefreshLayout extends cn.simonlee.widget.swiperefreshlayout.Sw
         }
 
         @Override
-        public void onFooterRefresh(cn.simonlee.widget.swiperefreshlayout.SwipeRefreshLayout parent, boolean isChanged, int state, float offset) {
-            if (mOuterOnRefreshListener != null) {
-                mOuterOnRefreshListener.onFooterRefresh(parent, isChanged, state, offset);
-            }
-            final View footerRefreshView = parent.getFooterRefreshView();
-            final View loadingImage = footerRefreshView.findViewById(R.id.refresh_image);
-            final TextView loadingText = footerRefreshView.findViewById(R.id.refresh_text);
-
-            setVisibility(loadingImage, state == STATE_UNABLE ? View.GONE : View.VISIBLE);
-
-            switch (state) {
-                case STATE_UNABLE: {
-                    if (isChanged) {
-                        loadingText.setText("全部加载完啦");
-                    }
-                    break;
-                }
-                case STATE_CLOSE: {
-                    if (isChanged) {
-                        loadingImage.clearAnimation();
-                    }
-                    break;
-                }
-                case STATE_OPEN: {
-                    if (isChanged) {
-                        loadingText.setText("上拉加载更多");
-                    }
-                    loadingImage.setRotation(-360F * Math.abs(offset) / footerRefreshView.getHeight());
-                    break;
-                }
-                case STATE_READY: {
-                    if (isChanged) {
-                        loadingText.setText("释放后加载");
-                    }
-                    loadingImage.setRotation(-360F * Math.abs(offset) / footerRefreshView.getHeight());
-                    break;
-                }
-                case STATE_REFRESHING: {
-                    if (isChanged) {
-                        loadingText.setText("正在加载...");
-                        loadingImage.startAnimation(mRotateAnimation);
-                    }
-                    break;
-                }
-                case STATE_REFRESH_COMPLETE: {
-                    if (isChanged) {
-                        loadingText.setText("加载完毕");
-                        loadingImage.clearAnimation();
-                    }
-                    loadingImage.setRotation(0F);
-                    break;
-                }
+        public void onRefreshProgress(cn.simonlee.widget.swiperefreshlayout.SwipeRefreshLayout parent, View refreshView, float progress) {
+            final int state = parent.getRefreshState();
+            if (state == STATE_OPEN || state == STATE_READY) {
+                final View loadingImage = parent.isHeaderRefreshView(refreshView) ? mHeaderImage : mFooterImage;
+                loadingImage.setRotation(-360F * progress);
             }
         }
     };
@@ -155,7 +94,7 @@ public class SwipeRefreshLayout extends cn.simonlee.widget.swiperefreshlayout.Sw
         setHeaderRefreshView(R.layout.layout_refresh_header);
         setFooterRefreshView(R.layout.layout_refresh_footer);
 
-        super.setOnRefreshListener(mInnerOnRefreshListener);
+        setOnRefreshProgressListener(mInnerOnRefreshProgressListener);
 
         mRotateAnimation = new RotateAnimation(0F, 360F, Animation.RELATIVE_TO_SELF, 0.5f, Animation.RELATIVE_TO_SELF, 0.5F);
         mRotateAnimation.setRepeatCount(-1);
@@ -163,15 +102,23 @@ public class SwipeRefreshLayout extends cn.simonlee.widget.swiperefreshlayout.Sw
         mRotateAnimation.setInterpolator(new LinearInterpolator());
     }
 
+    /**
+     * 刷新控件延迟加载，首次回调时查找一次，避免每次回调都findViewById
+     */
+    private void bindRefreshView(View refreshView, boolean isHeader) {
+        if (isHeader && mHeaderText == null) {
+            mHeaderImage = refreshView.findViewById(R.id.refresh_image);
+            mHeaderText = refreshView.findViewById(R.id.refresh_text);
+        } else if (!isHeader && mFooterText == null) {
+            mFooterImage = refreshView.findViewById(R.id.refresh_image);
+            mFooterText = refreshView.findViewById(R.id.refresh_text);
+        }
+    }
+
     private void setVisibility(View view, int visibility) {
         if (view != null && view.getVisibility() != visibility) {
             view.setVisibility(visibility);
         }
     }
 
-    @Override
-    public void setOnRefreshListener(OnRefreshListener listener) {
-        mOuterOnRefreshListener = listener;
-    }
-
 }
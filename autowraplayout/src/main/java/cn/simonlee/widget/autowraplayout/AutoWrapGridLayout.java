@@ -4,9 +4,13 @@ import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.SystemClock;
 import android.util.AttributeSet;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.accessibility.AccessibilityManager;
 
 /**
  * @author Simon Lee
@@ -75,7 +79,7 @@ public class AutoWrapGridLayout extends ViewGroup {
     /**
      * 网格线画笔
      */
-    private Paint mGridLinePaint;
+    private final Paint mGridLinePaint = new Paint();
 
     /**
      * firstChildView是否置顶
@@ -97,6 +101,51 @@ public class AutoWrapGridLayout extends ViewGroup {
      */
     private int mGridDrawTop;
 
+    /**
+     * 网格线线段，每4个值(x0, y0, x1, y1)表示一条线段，在onLayout中计算，在dispatchDraw中一次绘制
+     */
+    private float[] mGridLines = new float[0];
+
+    /**
+     * 网格线线段数组的有效长度
+     */
+    private int mGridLinesLength;
+
+    /**
+     * 单元格数量，即可见的非置顶child数量
+     */
+    private int mGridCellCount;
+
+    /**
+     * 单元格对应的child索引，在onLayout中记录
+     */
+    private int[] mGridCellChildIndexes = new int[0];
+
+    /**
+     * 是否启用单元格快速触摸分发
+     */
+    private boolean isFastTouchDispatchEnabled = true;
+
+    /**
+     * 快速分发中的触摸目标，为自身时表示事件由自身处理
+     */
+    private View mFastTouchTarget;
+
+    /**
+     * child是否请求不拦截触摸事件
+     */
+    private boolean isDisallowIntercept;
+
+    /**
+     * 是否强制拦截，用于将事件交给ViewGroup分发给自身处理，而不再遍历child
+     */
+    private boolean isSelfTouchDispatch;
+
+    /**
+     * 布局时用于计算child位置
+     */
+    private final Rect mChildFrame = new Rect();
+
     public AutoWrapGridLayout(Context context) {
         super(context);
     }
@@ -122,8 +171,8 @@ public class AutoWrapGridLayout extends ViewGroup {
         this.isStickFirst = typedArray.getBoolean(R.styleable.AutoWrapGridLayout_autowrap_stickFirst, false);
 
         typedArray.recycle();
-        mGridLinePaint = new Paint();
         mGridLinePaint.setColor(mGridLineColor);
+        mGridLinePaint.setStrokeWidth(mGridLineWidth);
     }
 
     @Override
@@ -154,20 +203,20 @@ public class AutoWrapGridLayout extends ViewGroup {
             //测量置顶的首行控件
             if (index == 0 && isStickFirst) {
                 stickFirst = child;
-                measureChild(child, widthMeasureSpec, heightMeasureSpec, false);
-                childState = combineMeasuredStates(childState, child.getMeasuredState());
+                measureChildCached(child, widthMeasureSpec, heightMeasureSpec, false);
+                childState = combineMeasuredStates(childState, ((LayoutParams) child.getLayoutParams()).getCachedMeasuredState());
                 continue;
             }
             //未指定单元格尺寸时，测量子控件尺寸，取最大值做为单元格宽高
             if (!skipMeasure) {
-                measureChild(child, widthMeasureSpec, heightMeasureSpec, true);
-                childState = combineMeasuredStates(childState, child.getMeasuredState());
-                final MarginLayoutParams lp = (MarginLayoutParams) child.getLayoutParams();
+                measureChildCached(child, widthMeasureSpec, heightMeasureSpec, true);
+                final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+                childState = combineMeasuredStates(childState, lp.getCachedMeasuredState());
                 if (mAppointGridCellWidth <= 0) {
-                    gridCellWidth = Math.max(gridCellWidth, lp.leftMargin + lp.rightMargin + child.getMeasuredWidth());
+                    gridCellWidth = Math.max(gridCellWidth, lp.leftMargin + lp.rightMargin + (lp.mCachedMeasuredWidthAndState & MEASURED_SIZE_MASK));
                 }
                 if (mAppointGridCellHeight <= 0) {
-                    gridCellHeight = Math.max(gridCellHeight, lp.topMargin + lp.bottomMargin + child.getMeasuredHeight());
+                    gridCellHeight = Math.max(gridCellHeight, lp.topMargin + lp.bottomMargin + (lp.mCachedMeasuredHeightAndState & MEASURED_SIZE_MASK));
                 }
             }
             gridCellCount++;
@@ -179,8 +228,8 @@ public class AutoWrapGridLayout extends ViewGroup {
             int maxGridWidth = gridCellCount * (gridCellWidth + mGridLineWidth) - mGridLineWidth;
             if (stickFirst != null) {
                 //最大宽度与首行控件宽度取极大值
-                final MarginLayoutParams lp = (MarginLayoutParams) stickFirst.getLayoutParams();
-                maxGridWidth = Math.max(maxGridWidth, stickFirst.getMeasuredWidth() + lp.leftMargin + lp.rightMargin);
+                final LayoutParams lp = (LayoutParams) stickFirst.getLayoutParams();
+                maxGridWidth = Math.max(maxGridWidth, (lp.mCachedMeasuredWidthAndState & MEASURED_SIZE_MASK) + lp.leftMargin + lp.rightMargin);
             }
             if (widthMode == MeasureSpec.AT_MOST) {
                 //限定高度和最大高度取极小值
@@ -192,13 +241,18 @@ public class AutoWrapGridLayout extends ViewGroup {
             widthMeasureSpec = MeasureSpec.makeMeasureSpec(widthSize, MeasureSpec.EXACTLY);
             if (stickFirst != null) {
                 //当首行控件的宽为match_content，重新进行测量，使首行控件的宽为最大宽度
-                final MarginLayoutParams lp = (MarginLayoutParams) stickFirst.getLayoutParams();
+                final LayoutParams lp = (LayoutParams) stickFirst.getLayoutParams();
                 if (lp.width == LayoutParams.MATCH_PARENT) {
                     int stickFirstWidthMeasureSpec = MeasureSpec.makeMeasureSpec(widthSize - mPaddingWidth - lp.leftMargin - lp.rightMargin, MeasureSpec.EXACTLY);
-                    stickFirst.measure(stickFirstWidthMeasureSpec, stickFirst.getMeasuredHeightAndState());
+                    //使用缓存的测量结果，保证测量参数与上次一致时可跳过测量
+                    stickFirst.measure(stickFirstWidthMeasureSpec, lp.mCachedMeasuredHeightAndState);
                     childState = combineMeasuredStates(childState, stickFirst.getMeasuredState());
+                } else {
+                    restoreCachedMeasure(stickFirst, lp);
                 }
             }
+        } else if (stickFirst != null) {
+            restoreCachedMeasure(stickFirst, (LayoutParams) stickFirst.getLayoutParams());
         }
 
         //Step.5 计算单元格行列数、校正单元格宽度、确定网格宽度余量
@@ -229,7 +283,7 @@ public class AutoWrapGridLayout extends ViewGroup {
                 if (columnNum >= mColumnCount) {
                     columnNum = 0;
                 }
-                final MarginLayoutParams lp = (MarginLayoutParams) child.getLayoutParams();
+                final LayoutParams lp = (LayoutParams) child.getLayoutParams();
                 final boolean matchWidth = fillGravity || lp.width == LayoutParams.MATCH_PARENT;
                 final boolean matchHeight = fillGravity || lp.height == LayoutParams.MATCH_PARENT;
 
@@ -239,17 +293,21 @@ public class AutoWrapGridLayout extends ViewGroup {
                     childHeightMeasureSpec = gridCellMeasureSpec_Height;
                 } else if (matchWidth) {//宽度填满单元格
                     childWidthMeasureSpec = columnNum > mRemnantWidth ? gridCellMeasureSpec_Width : gridCellMeasureSpec_WidthPlus;
-                    childHeightMeasureSpec = skipMeasure ? getChildHeightMeasureSpec(heightMeasureSpec, lp, true) : child.getMeasuredWidthAndState();
+                    childHeightMeasureSpec = skipMeasure ? getChildHeightMeasureSpec(heightMeasureSpec, lp, true) : lp.mCachedMeasuredWidthAndState;
                 } else if (matchHeight) {//高度填满单元格
-                    childWidthMeasureSpec = skipMeasure ? getChildWidthMeasureSpec(widthMeasureSpec, lp, true) : child.getMeasuredHeightAndState();
+                    childWidthMeasureSpec = skipMeasure ? getChildWidthMeasureSpec(widthMeasureSpec, lp, true) : lp.mCachedMeasuredHeightAndState;
                     childHeightMeasureSpec = gridCellMeasureSpec_Height;
                 } else if (skipMeasure) {//宽高都不填满单元格，但是前面跳过了测量
                     childWidthMeasureSpec = getChildWidthMeasureSpec(widthMeasureSpec, lp, true);
                     childHeightMeasureSpec = getChildHeightMeasureSpec(heightMeasureSpec, lp, true);
                 }
                 if (matchWidth || matchHeight || skipMeasure) {
+                    //测量参数与上次一致且未请求重新布局时，View内部会跳过测量
                     child.measure(childWidthMeasureSpec, childHeightMeasureSpec);
                     childState = combineMeasuredStates(childState, child.getMeasuredState());
+                } else {
+                    //不填满单元格时应为Step.3的测量结果，可能因上次填满单元格（如对齐方式改变）而不一致
+                    restoreCachedMeasure(child, lp);
                 }
                 columnNum++;
             }
@@ -286,6 +344,44 @@ public class AutoWrapGridLayout extends ViewGroup {
         child.measure(childWidthMeasureSpec, childHeightMeasureSpec);
     }
 
+    /**
+     * 计算child尺寸，并将结果缓存到{@link LayoutParams}中
+     * 测量参数与缓存一致且child未请求重新布局时跳过测量，直接使用缓存结果
+     * <p>
+     * 单元格在Step.3和Step.6中使用不同的测量参数，若不缓存，每次布局都会测量两次
+     */
+    private void measureChildCached(View child, int parentWidthMeasureSpec, int parentHeightMeasureSpec, boolean isGridCell) {
+        final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+        final int childWidthMeasureSpec = getChildWidthMeasureSpec(parentWidthMeasureSpec, lp, isGridCell);
+        final int childHeightMeasureSpec = getChildHeightMeasureSpec(parentHeightMeasureSpec, lp, isGridCell);
+        if (lp.hasMeasureCache && !child.isLayoutRequested()
+                && lp.mCachedWidthMeasureSpec == childWidthMeasureSpec
+                && lp.mCachedHeightMeasureSpec == childHeightMeasureSpec) {
+            return;
+        }
+        child.measure(childWidthMeasureSpec, childHeightMeasureSpec);
+        lp.hasMeasureCache = true;
+        lp.mCachedWidthMeasureSpec = childWidthMeasureSpec;
+        lp.mCachedHeightMeasureSpec = childHeightMeasureSpec;
+        lp.mCachedMeasuredWidthAndState = child.getMeasuredWidthAndState();
+        lp.mCachedMeasuredHeightAndState = child.getMeasuredHeightAndState();
+    }
+
+    /**
+     * 恢复Step.3缓存的测量结果
+     * <p>
+     * Step.3命中缓存时不会测量，child当前的测量尺寸可能是上次按单元格尺寸测量的结果，
+     * 与缓存不一致时按缓存的测量参数重新测量
+     */
+    private void restoreCachedMeasure(View child, LayoutParams lp) {
+        if (lp.hasMeasureCache && (child.getMeasuredWidthAndState() != lp.mCachedMeasuredWidthAndState
+                || child.getMeasuredHeightAndState() != lp.mCachedMeasuredHeightAndState)) {
+            child.measure(lp.mCachedWidthMeasureSpec, lp.mCachedHeightMeasureSpec);
+            lp.mCachedMeasuredWidthAndState = child.getMeasuredWidthAndState();
+            lp.mCachedMeasuredHeightAndState = child.getMeasuredHeightAndState();
+        }
+    }
+
     private int getChildHeightMeasureSpec(int parentHeightMeasureSpec, MarginLayoutParams lp, boolean isGridCell) {
         final int childHeightDimension = lp.height != LayoutParams.MATCH_PARENT ? lp.height : (isGridCell ? LayoutParams.WRAP_CONTENT : lp.height);
         return getChildMeasureSpec(parentHeightMeasureSpec, mPaddingHeight + lp.topMargin + lp.bottomMargin, childHeightDimension);
@@ -305,6 +401,10 @@ public class AutoWrapGridLayout extends ViewGroup {
 
         //列数
         int columnNum = 0;
+        //单元格数量
+        int gridCellCount = 0;
+        //置顶的firstChild是否可见
+        boolean hasStickFirst = false;
         for (int index = 0; index < getChildCount(); index++) {
             View child = getChildAt(index);
             if (child == null || child.getVisibility() == View.GONE) {
@@ -318,7 +418,20 @@ public class AutoWrapGridLayout extends ViewGroup {
                         layoutLeft + lp.leftMargin + child.getMeasuredWidth(), layoutTop + lp.topMargin + child.getMeasuredHeight());
                 //使布局上边下移
                 layoutTop += child.getMeasuredHeight() + lp.topMargin + lp.bottomMargin + mGridLineWidth;
+                hasStickFirst = true;
             } else {
+                if (gridCellCount == 0) {
+                    //记录网格的起始顶点
+                    mGridDrawTop = layoutTop;
+                }
+                //记录单元格对应的child索引
+                if (mGridCellChildIndexes.length <= gridCellCount) {
+                    int[] gridCellChildIndexes = new int[Math.max(gridCellCount + 1, getChildCount())];
+                    System.arraycopy(mGridCellChildIndexes, 0, gridCellChildIndexes, 0, gridCellCount);
+                    mGridCellChildIndexes = gridCellChildIndexes;
+                }
+                mGridCellChildIndexes[gridCellCount] = index;
+                gridCellCount++;
                 //若当前列数大于网格列数，则换行
                 if (columnNum >= mColumnCount) {
                     columnNum = 0;
@@ -329,85 +442,341 @@ public class AutoWrapGridLayout extends ViewGroup {
                 int gridCellWidth = columnNum < mRemnantWidth ? (mGridCellWidth + 1) : mGridCellWidth;
 
                 //当前单元格中child的上下左右值
-                int childLeft = layoutLeft + lp.leftMargin;
-                int childTop = layoutTop + lp.topMargin;
-                int childRight = layoutLeft + gridCellWidth - lp.rightMargin;
-                int childBottom = layoutTop + mGridCellHeight - lp.bottomMargin;
-                if ((mGridCellGravity & GRAVITY_FILL) != GRAVITY_FILL) {//非填满对齐方式
-                    //根据水平对齐方式调整左右值
-                    if ((mGridCellGravity & GRAVITY_LEFT) == GRAVITY_LEFT) {//水平居左
-                        childRight = Math.min(childRight, childLeft + child.getMeasuredWidth());
-                    } else if ((mGridCellGravity & GRAVITY_RIGHT) == GRAVITY_RIGHT) {//水平居右
-                        childLeft = Math.max(childLeft, childRight - child.getMeasuredWidth());
-                    } else if ((mGridCellGravity & GRAVITY_CENTER) == GRAVITY_CENTER) {//水平居中
-                        childLeft = Math.max(childLeft, (int) ((childLeft + childRight - child.getMeasuredWidth()) / 2F + 0.5F));
-                        childRight = Math.min(childRight, childLeft + child.getMeasuredWidth());
-                    }
-                    //根据垂直对齐方式调整上下值
-                    if ((mGridCellGravity & GRAVITY_TOP) == GRAVITY_TOP) {//垂直居上
-                        childBottom = Math.min(childBottom, childTop + child.getMeasuredHeight());
-                    } else if ((mGridCellGravity & GRAVITY_BOTTOM) == GRAVITY_BOTTOM) {//垂直居下
-                        childTop = Math.max(childTop, childBottom - child.getMeasuredHeight());
-                    } else if ((mGridCellGravity & GRAVITY_CENTER) == GRAVITY_CENTER) {//垂直居中
-                        childTop = (int) Math.max(childTop, (childTop + childBottom - child.getMeasuredHeight()) / 2F + 0.5F);
-                        childBottom = Math.min(childBottom, childTop + child.getMeasuredHeight());
-                    }
-                }
-                child.layout(childLeft, childTop, childRight, childBottom);
+                mChildFrame.set(layoutLeft + lp.leftMargin, layoutTop + lp.topMargin,
+                        layoutLeft + gridCellWidth - lp.rightMargin, layoutTop + mGridCellHeight - lp.bottomMargin);
+                //根据对齐方式调整child的上下左右值
+                applyCellGravity(mGridCellGravity, mChildFrame, child.getMeasuredWidth(), child.getMeasuredHeight());
+                child.layout(mChildFrame.left, mChildFrame.top, mChildFrame.right, mChildFrame.bottom);
                 columnNum++;
                 layoutLeft += gridCellWidth + mGridLineWidth;
             }
         }
+        if (gridCellCount == 0) {
+            mGridDrawTop = layoutTop;
+        }
+        mGridCellCount = gridCellCount;
+        computeGridLines(hasStickFirst, gridCellCount, right - left);
     }
 
-    @Override
-    protected void dispatchDraw(Canvas canvas) {
-        mGridDrawTop = 0;
-        if (isStickFirst) {
-            View child = getChildAt(0);
-            if (child != null && child.getVisibility() != View.GONE) {
-                final MarginLayoutParams lp = (MarginLayoutParams) child.getLayoutParams();
-                mGridDrawTop = child.getBottom() + lp.bottomMargin + mGridLineWidth;
+    /**
+     * 计算所有网格线线段，线段位于网格线宽度的中线上，绘制时线宽即网格线宽
+     *
+     * @param hasStickFirst 置顶的firstChild是否可见
+     * @param gridCellCount 单元格数量
+     * @param width         布局宽度
+     */
+    private void computeGridLines(boolean hasStickFirst, int gridCellCount, int width) {
+        mGridLinesLength = 0;
+        if (mGridLineWidth <= 0) {
+            return;
+        }
+        //线段数量：置顶下边线 + 每行下边线 + 每个单元格右边线
+        final int lineCount = (hasStickFirst ? 1 : 0) + mRowCount + gridCellCount;
+        if (mGridLines.length < lineCount * 4) {
+            mGridLines = new float[lineCount * 4];
+        }
+        final float halfLineWidth = mGridLineWidth / 2F;
+        if (hasStickFirst) {
+            //置顶的firstChild下边网格线
+            addGridLine(0, mGridDrawTop - halfLineWidth, width, mGridDrawTop - halfLineWidth);
+        }
+        for (int row = 0; row < mRowCount; row++) {
+            //单元格的顶边及底边
+            final int gridCellTop = mGridDrawTop + row * (mGridCellHeight + mGridLineWidth);
+            final int gridCellBottom = gridCellTop + mGridCellHeight;
+            //不是最后一行，绘制下边网格线
+            if (row < mRowCount - 1) {
+                addGridLine(0, gridCellBottom + halfLineWidth, width, gridCellBottom + halfLineWidth);
+            }
+            //当前行的单元格数量，不是最后一列，绘制单元格右边网格线
+            final int rowCellCount = Math.min(mColumnCount, gridCellCount - row * mColumnCount);
+            for (int column = 0; column < rowCellCount && column < mColumnCount - 1; column++) {
+                //单元格的右边（要考虑网格宽度余量的影响）
+                final int gridCellRight = getPaddingLeft() + (column + 1) * (mGridCellWidth + mGridLineWidth) - mGridLineWidth + Math.min(mRemnantWidth, column + 1);
+                addGridLine(gridCellRight + halfLineWidth, gridCellTop, gridCellRight + halfLineWidth, gridCellBottom);
             }
         }
-        super.dispatchDraw(canvas);
+    }
+
+    private void addGridLine(float startX, float startY, float stopX, float stopY) {
+        mGridLines[mGridLinesLength++] = startX;
+        mGridLines[mGridLinesLength++] = startY;
+        mGridLines[mGridLinesLength++] = stopX;
+        mGridLines[mGridLinesLength++] = stopY;
+    }
+
+    /**
+     * 根据单元格对齐方式调整child的上下左右值
+     *
+     * @param gravity        单元格对齐方式
+     * @param frame          传入单元格去除margin后的区域，返回child的区域
+     * @param measuredWidth  child测量宽度
+     * @param measuredHeight child测量高度
+     */
+    static void applyCellGravity(int gravity, Rect frame, int measuredWidth, int measuredHeight) {
+        if ((gravity & GRAVITY_FILL) == GRAVITY_FILL) {//填满对齐方式
+            return;
+        }
+        //根据水平对齐方式调整左右值
+        if ((gravity & GRAVITY_LEFT) == GRAVITY_LEFT) {//水平居左
+            frame.right = Math.min(frame.right, frame.left + measuredWidth);
+        } else if ((gravity & GRAVITY_RIGHT) == GRAVITY_RIGHT) {//水平居右
+            frame.left = Math.max(frame.left, frame.right - measuredWidth);
+        } else if ((gravity & GRAVITY_CENTER) == GRAVITY_CENTER) {//水平居中
+            frame.left = Math.max(frame.left, (int) ((frame.left + frame.right - measuredWidth) / 2F + 0.5F));
+            frame.right = Math.min(frame.right, frame.left + measuredWidth);
+        }
+        //根据垂直对齐方式调整上下值
+        if ((gravity & GRAVITY_TOP) == GRAVITY_TOP) {//垂直居上
+            frame.bottom = Math.min(frame.bottom, frame.top + measuredHeight);
+        } else if ((gravity & GRAVITY_BOTTOM) == GRAVITY_BOTTOM) {//垂直居下
+            frame.top = Math.max(frame.top, frame.bottom - measuredHeight);
+        } else if ((gravity & GRAVITY_CENTER) == GRAVITY_CENTER) {//垂直居中
+            frame.top = (int) Math.max(frame.top, (frame.top + frame.bottom - measuredHeight) / 2F + 0.5F);
+            frame.bottom = Math.min(frame.bottom, frame.top + measuredHeight);
+        }
     }
 
     @Override
-    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+    protected void dispatchDraw(Canvas canvas) {
         //网格线的颜色为透明，则不进行绘制
-        if (mGridLineWidth <= 0 || mGridLineColor >>> 24 <= 0 || child.getVisibility() == GONE) {
-            return super.drawChild(canvas, child, drawingTime);
+        if (mGridLinesLength > 0 && mGridLineColor >>> 24 > 0) {
+            canvas.drawLines(mGridLines, 0, mGridLinesLength, mGridLinePaint);
         }
-        if (isStickFirst && child == getChildAt(0)) {
-            //绘制置顶的firstChild下边网格线
-            canvas.drawRect(0, mGridDrawTop - mGridLineWidth, getWidth(), mGridDrawTop, mGridLinePaint);
+        super.dispatchDraw(canvas);
+    }
+
+    /**
+     * 返回坐标所在的单元格索引，坐标位于网格线、padding或置顶区域时返回-1
+     * <p>
+     * 单元格尺寸一致，直接根据坐标计算行列，无需遍历child
+     *
+     * @param x 相对于本布局的横坐标（不含scroll）
+     * @param y 相对于本布局的纵坐标（不含scroll）
+     */
+    public int getCellIndexAt(float x, float y) {
+        if (mGridCellCount <= 0 || mGridCellWidth + mGridLineWidth <= 0 || mGridCellHeight + mGridLineWidth <= 0
+                || x < getPaddingLeft() || y < mGridDrawTop) {
+            return -1;
+        }
+        //计算所在的列（要考虑网格宽度余量的影响）
+        final int offsetX = (int) x - getPaddingLeft();
+        final int remnantSpan = mRemnantWidth * (mGridCellWidth + 1 + mGridLineWidth);
+        final int columnNum, cellOffsetX;
+        if (offsetX < remnantSpan) {
+            columnNum = offsetX / (mGridCellWidth + 1 + mGridLineWidth);
+            cellOffsetX = offsetX % (mGridCellWidth + 1 + mGridLineWidth) - 1;
         } else {
-            //计算当前child所在的行
-            int rowNum = (child.getBottom() - mGridDrawTop) / (mGridCellHeight + mGridLineWidth);
-            //计算当前child所在的列（要考虑网格宽度余量的影响）
-            int columnNum = (child.getRight() - getPaddingLeft()) / (mGridCellWidth + mGridLineWidth + 1);
-            if (columnNum >= mRemnantWidth) {
-                columnNum = (child.getRight() - getPaddingLeft() - mRemnantWidth) / (mGridCellWidth + mGridLineWidth);
-            }
-            //计算当前child所在单元格的底边
-            int gridCellBottom = mGridDrawTop + rowNum * (mGridCellHeight + mGridLineWidth) + mGridCellHeight;
-            //计算当前child所在单元格的右边
-            int gridCellRight = getPaddingLeft() + columnNum * (mGridCellWidth + mGridLineWidth) + mGridCellWidth;
-            //宽存在余量，需要校正单元格的右边
-            if (mRemnantWidth > 0) {
-                gridCellRight += Math.min(mRemnantWidth, columnNum + 1);
+            columnNum = mRemnantWidth + (offsetX - remnantSpan) / (mGridCellWidth + mGridLineWidth);
+            cellOffsetX = (offsetX - remnantSpan) % (mGridCellWidth + mGridLineWidth);
+        }
+        //计算所在的行
+        final int offsetY = (int) y - mGridDrawTop;
+        final int rowNum = offsetY / (mGridCellHeight + mGridLineWidth);
+        final int cellOffsetY = offsetY % (mGridCellHeight + mGridLineWidth);
+        //位于网格线上或超出网格
+        if (columnNum >= mColumnCount || cellOffsetX >= mGridCellWidth || cellOffsetY >= mGridCellHeight) {
+            return -1;
+        }
+        final int cellIndex = rowNum * mColumnCount + columnNum;
+        return cellIndex < mGridCellCount ? cellIndex : -1;
+    }
+
+    /**
+     * 获取单元格区域
+     *
+     * @param cellIndex 单元格索引
+     * @param outBounds 返回单元格区域，相对于本布局
+     * @return 单元格是否存在
+     */
+    public boolean getCellBounds(int cellIndex, Rect outBounds) {
+        if (cellIndex < 0 || cellIndex >= mGridCellCount) {
+            return false;
+        }
+        final int rowNum = cellIndex / mColumnCount;
+        final int columnNum = cellIndex % mColumnCount;
+        final int left = getPaddingLeft() + columnNum * (mGridCellWidth + mGridLineWidth) + Math.min(columnNum, mRemnantWidth);
+        final int top = mGridDrawTop + rowNum * (mGridCellHeight + mGridLineWidth);
+        outBounds.set(left, top, left + (columnNum < mRemnantWidth ? mGridCellWidth + 1 : mGridCellWidth), top + mGridCellHeight);
+        return true;
+    }
+
+    /**
+     * 返回单元格对应的child，单元格不存在时返回null
+     */
+    public View getCellChildAt(int cellIndex) {
+        if (cellIndex < 0 || cellIndex >= mGridCellCount) {
+            return null;
+        }
+        return getChildAt(mGridCellChildIndexes[cellIndex]);
+    }
+
+    /**
+     * 设置是否启用单元格快速触摸分发，默认启用
+     * <p>
+     * 启用后，按下事件直接根据坐标计算目标单元格，不再逆序遍历所有child。
+     * 同一手势的多点触控事件都分发给按下时的目标，不会拆分到其他单元格。
+     */
+    public void setFastTouchDispatchEnabled(boolean enabled) {
+        this.isFastTouchDispatchEnabled = enabled;
+    }
+
+    /**
+     * 返回是否启用单元格快速触摸分发
+     */
+    public boolean isFastTouchDispatchEnabled() {
+        return isFastTouchDispatchEnabled;
+    }
+
+    @Override
+    public void requestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+        super.requestDisallowInterceptTouchEvent(disallowIntercept);
+        this.isDisallowIntercept = disallowIntercept;
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent event) {
+        final int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            mFastTouchTarget = null;
+            View target = findFastTouchTarget(event);
+            if (target == null) {
+                //无法快速定位，交给ViewGroup分发
+                return super.dispatchTouchEvent(event);
             }
-            //当前child为该行的第一个单元格且不是最后一行，绘制下边网格线
-            if (columnNum == 0 && rowNum < mRowCount - 1) {
-                canvas.drawRect(0, gridCellBottom, getWidth(), gridCellBottom + mGridLineWidth, mGridLinePaint);
+            //与ViewGroup按下时一致：重置不拦截标志，停止嵌套滑动
+            isDisallowIntercept = false;
+            super.requestDisallowInterceptTouchEvent(false);
+            stopNestedScroll();
+            if (onInterceptTouchEvent(event)) {
+                //拦截按下事件，沿用本次询问结果交给自身处理，不再重复询问
+                final boolean handled = dispatchToSelf(event);
+                if (!handled) {
+                    mFastTouchTarget = null;
+                }
+                return handled;
             }
-            //当前child不是最后一列，绘制child右边网格线
-            if (columnNum < mColumnCount - 1) {
-                canvas.drawRect(gridCellRight, gridCellBottom - mGridCellHeight, gridCellRight + mGridLineWidth, gridCellBottom, mGridLinePaint);
+            mFastTouchTarget = target;
+        } else if (mFastTouchTarget == null) {
+            //当前手势不是快速分发
+            return super.dispatchTouchEvent(event);
+        }
+        final boolean cancelOrUp = action == MotionEvent.ACTION_CANCEL || action == MotionEvent.ACTION_UP;
+        boolean handled;
+        if (mFastTouchTarget == this) {
+            //ViewGroup未记录触摸目标，会直接交给自身处理
+            handled = super.dispatchTouchEvent(event);
+        } else if (mFastTouchTarget.getParent() != this) {
+            //目标已脱离，先通知其取消触摸
+            cancelFastTouchTarget();
+            return false;
+        } else if (!onFilterTouchEventForSecurity(event)) {
+            //与ViewGroup一致，窗口被遮挡时丢弃事件
+            handled = false;
+        } else if (action != MotionEvent.ACTION_DOWN && !isDisallowIntercept && onInterceptTouchEvent(event)) {
+            //拦截事件，取消目标的触摸，后续事件由自身处理
+            event.setAction(MotionEvent.ACTION_CANCEL);
+            dispatchToCell(mFastTouchTarget, event);
+            event.setAction(action);
+            mFastTouchTarget = cancelOrUp ? null : this;
+            return true;
+        } else {
+            handled = dispatchToCell(mFastTouchTarget, event);
+            if (action == MotionEvent.ACTION_DOWN && !handled) {
+                //目标未消费按下事件，单元格互不重叠，其他child不会命中，交给自身处理
+                handled = dispatchToSelf(event);
             }
         }
-        return super.drawChild(canvas, child, drawingTime);
+        if (cancelOrUp || !handled && action == MotionEvent.ACTION_DOWN) {
+            mFastTouchTarget = null;
+        }
+        return handled;
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent event) {
+        return isSelfTouchDispatch || super.onInterceptTouchEvent(event);
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        if (child == mFastTouchTarget) {
+            //快速分发的目标不在ViewGroup的触摸目标中，需自行取消
+            cancelFastTouchTarget();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        cancelFastTouchTarget();
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * 按下事件强制拦截，经ViewGroup分发给自身处理，后续事件同样由自身处理
+     */
+    private boolean dispatchToSelf(MotionEvent event) {
+        mFastTouchTarget = this;
+        isSelfTouchDispatch = true;
+        try {
+            return super.dispatchTouchEvent(event);
+        } finally {
+            isSelfTouchDispatch = false;
+        }
+    }
+
+    /**
+     * 向快速分发的目标发送取消事件并清空目标，目标为自身时交由ViewGroup处理
+     */
+    private void cancelFastTouchTarget() {
+        final View target = mFastTouchTarget;
+        mFastTouchTarget = null;
+        if (target == null || target == this) {
+            return;
+        }
+        final long now = SystemClock.uptimeMillis();
+        MotionEvent cancelEvent = MotionEvent.obtain(now, now, MotionEvent.ACTION_CANCEL, 0, 0, 0);
+        target.dispatchTouchEvent(cancelEvent);
+        cancelEvent.recycle();
+    }
+
+    /**
+     * 根据按下坐标直接计算目标单元格的child，不满足快速分发条件时返回null
+     * <p>
+     * 布局待更新、多点按下、开启触摸浏览、child存在变换矩阵或坐标不在child范围内时都不走快速分发
+     */
+    private View findFastTouchTarget(MotionEvent event) {
+        if (!isFastTouchDispatchEnabled || isLayoutRequested() || event.getPointerCount() != 1 || !onFilterTouchEventForSecurity(event)) {
+            return null;
+        }
+        //触摸浏览时事件可能指向无障碍焦点，交给ViewGroup处理
+        AccessibilityManager accessibilityManager = (AccessibilityManager) getContext().getSystemService(Context.ACCESSIBILITY_SERVICE);
+        if (accessibilityManager != null && accessibilityManager.isTouchExplorationEnabled()) {
+            return null;
+        }
+        final float x = event.getX() + getScrollX();
+        final float y = event.getY() + getScrollY();
+        final View child = getCellChildAt(getCellIndexAt(x, y));
+        if (child == null || child.getVisibility() != View.VISIBLE || child.getAnimation() != null || !child.getMatrix().isIdentity()) {
+            return null;
+        }
+        if (x < child.getLeft() || x >= child.getRight() || y < child.getTop() || y >= child.getBottom()) {
+            return null;
+        }
+        return child;
+    }
+
+    /**
+     * 将事件转换到child坐标系后分发
+     */
+    private boolean dispatchToCell(View child, MotionEvent event) {
+        final float offsetX = getScrollX() - child.getLeft();
+        final float offsetY = getScrollY() - child.getTop();
+        event.offsetLocation(offsetX, offsetY);
+        final boolean handled = child.dispatchTouchEvent(event);
+        event.offsetLocation(-offsetX, -offsetY);
+        return handled;
     }
 
     /**
@@ -442,6 +811,7 @@ public class AutoWrapGridLayout extends ViewGroup {
     public void setGridLineWidth(int width) {
         if (mGridLineWidth != width) {
             mGridLineWidth = width;
+            mGridLinePaint.setStrokeWidth(mGridLineWidth);
             super.requestLayout();
         }
     }
@@ -511,27 +881,73 @@ public class AutoWrapGridLayout extends ViewGroup {
     }
 
     @Override
-    protected LayoutParams generateLayoutParams(LayoutParams lp) {
+    protected ViewGroup.LayoutParams generateLayoutParams(ViewGroup.LayoutParams lp) {
         if (lp instanceof MarginLayoutParams) {
-            return new MarginLayoutParams((MarginLayoutParams) lp);
+            return new LayoutParams((MarginLayoutParams) lp);
         } else {
-            return new MarginLayoutParams(lp);
+            return new LayoutParams(lp);
         }
     }
 
     @Override
-    public LayoutParams generateLayoutParams(AttributeSet attrs) {
-        return new MarginLayoutParams(getContext(), attrs);
+    public ViewGroup.LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new LayoutParams(getContext(), attrs);
     }
 
     @Override
-    protected LayoutParams generateDefaultLayoutParams() {
-        return new MarginLayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
+    protected ViewGroup.LayoutParams generateDefaultLayoutParams() {
+        return new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
     }
 
     @Override
-    protected boolean checkLayoutParams(LayoutParams p) {
-        return p instanceof MarginLayoutParams;
+    protected boolean checkLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof LayoutParams;
+    }
+
+    /**
+     * 布局参数，额外缓存单元格测量结果
+     */
+    public static class LayoutParams extends MarginLayoutParams {
+
+        /**
+         * 是否存在测量缓存
+         */
+        boolean hasMeasureCache;
+
+        /**
+         * 缓存的测量参数
+         */
+        int mCachedWidthMeasureSpec, mCachedHeightMeasureSpec;
+
+        /**
+         * 缓存的测量结果
+         */
+        int mCachedMeasuredWidthAndState, mCachedMeasuredHeightAndState;
+
+        public LayoutParams(Context c, AttributeSet attrs) {
+            super(c, attrs);
+        }
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public LayoutParams(MarginLayoutParams source) {
+            super(source);
+        }
+
+        public LayoutParams(ViewGroup.LayoutParams source) {
+            super(source);
+        }
+
+        /**
+         * 返回缓存的测量状态，参考{@link View#getMeasuredState()}
+         */
+        int getCachedMeasuredState() {
+            return (mCachedMeasuredWidthAndState & MEASURED_STATE_MASK)
+                    | ((mCachedMeasuredHeightAndState >> MEASURED_HEIGHT_STATE_SHIFT) & (MEASURED_STATE_MASK >> MEASURED_HEIGHT_STATE_SHIFT));
+        }
+
     }
 
 }
@@ -0,0 +1,765 @@
+package cn.simonlee.widget.autowraplayout;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PointF;
+import android.graphics.Rect;
+import android.os.Bundle;
+import android.os.Parcelable;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearSmoothScroller;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 与{@link AutoWrapGridLayout}表现一致的RecyclerView布局管理器，仅测量和布局可见行，超出屏幕的单元格被回收复用
+ * <p>
+ * 支持：根据单元格宽度自动计算列数、宽度余量分配、首项置顶、单元格对齐方式、网格线。
+ * <p>
+ * 注意：
+ * 1.仅支持纵向滚动，RecyclerView的高度需为确定值（如match_parent）；
+ * 2.单元格宽高未指定时，以第一个单元格的测量尺寸为准，所有单元格尺寸一致；
+ * 3.网格线由内部的ItemDecoration绘制，附加到RecyclerView时自动添加。
+ * <p>
+ * 可在布局文件中通过app:layoutManager指定，使用AutoWrapGridLayout的自定义属性。
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class AutoWrapGridLayoutManager extends RecyclerView.LayoutManager implements RecyclerView.SmoothScroller.ScrollVectorProvider {
+
+    private static final String KEY_SCROLL_OFFSET = "scroll_offset";
+
+    /**
+     * 单元格内对齐方式
+     */
+    private int mGridCellGravity = AutoWrapGridLayout.GRAVITY_FILL;
+
+    /**
+     * 单元格指定宽高
+     */
+    private int mAppointGridCellWidth, mAppointGridCellHeight;
+
+    /**
+     * 单元格实际宽高
+     */
+    private int mGridCellWidth, mGridCellHeight;
+
+    /**
+     * 网格的宽被单元格平分后的余量。
+     * 每行从左至右每个单元格从余数中取1，尽可能使每个单元格看起来一样宽
+     */
+    private int mRemnantWidth;
+
+    /**
+     * 网格线宽
+     */
+    private int mGridLineWidth = 1;
+
+    /**
+     * 网格线颜色
+     */
+    private int mGridLineColor;
+
+    /**
+     * firstChildView是否置顶
+     */
+    private boolean isStickFirst;
+
+    /**
+     * 单元格的行列数
+     */
+    private int mRowCount, mColumnCount;
+
+    /**
+     * 置顶控件的高度（含margin）
+     */
+    private int mStickFirstHeight;
+
+    /**
+     * 第一个单元格的测量宽高（含margin），单元格尺寸未指定时使用
+     */
+    private int mMeasuredCellWidth, mMeasuredCellHeight;
+
+    /**
+     * 测量置顶控件及第一个单元格时的网格宽度
+     */
+    private int mMeasuredGridWidth = -1;
+
+    /**
+     * 置顶控件及第一个单元格是否需要重新测量，数据、宽度或指定尺寸改变时置为true
+     */
+    private boolean isGridMeasureDirty = true;
+
+    /**
+     * 纵向滚动距离
+     */
+    private int mScrollOffset;
+
+    /**
+     * 已添加的首末行，没有已添加的行时mFirstAttachedRow大于mLastAttachedRow
+     */
+    private int mFirstAttachedRow, mLastAttachedRow = -1;
+
+    /**
+     * 置顶控件是否已添加
+     */
+    private boolean isStickFirstAttached;
+
+    /**
+     * 附加的RecyclerView，用于网格线颜色改变时重绘
+     */
+    private RecyclerView mRecyclerView;
+
+    /**
+     * 等待滚动到的位置
+     */
+    private int mPendingScrollPosition = RecyclerView.NO_POSITION;
+
+    /**
+     * 网格线绘制
+     */
+    private final GridLineDecoration mGridLineDecoration = new GridLineDecoration();
+
+    /**
+     * 计算child位置
+     */
+    private final Rect mChildFrame = new Rect();
+
+    public AutoWrapGridLayoutManager(int gridCellWidth, int gridCellHeight) {
+        this.mAppointGridCellWidth = gridCellWidth;
+        this.mAppointGridCellHeight = gridCellHeight;
+    }
+
+    /**
+     * 在布局文件中通过app:layoutManager指定时调用
+     */
+    public AutoWrapGridLayoutManager(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.AutoWrapGridLayout, defStyleAttr, defStyleRes);
+
+        this.mGridCellGravity = typedArray.getInt(R.styleable.AutoWrapGridLayout_autowrap_gridCellGravity, AutoWrapGridLayout.GRAVITY_FILL);
+        this.mAppointGridCellWidth = typedArray.getDimensionPixelSize(R.styleable.AutoWrapGridLayout_autowrap_gridCellWidth, 0);
+        this.mAppointGridCellHeight = typedArray.getDimensionPixelSize(R.styleable.AutoWrapGridLayout_autowrap_gridCellHeight, 0);
+        this.mGridLineWidth = typedArray.getDimensionPixelSize(R.styleable.AutoWrapGridLayout_autowrap_gridLineWidth, 1);
+        this.mGridLineColor = typedArray.getColor(R.styleable.AutoWrapGridLayout_autowrap_gridLineColor, 0);
+        this.isStickFirst = typedArray.getBoolean(R.styleable.AutoWrapGridLayout_autowrap_stickFirst, false);
+
+        typedArray.recycle();
+        mGridLineDecoration.mGridLinePaint.setColor(mGridLineColor);
+    }
+
+    @Override
+    public RecyclerView.LayoutParams generateDefaultLayoutParams() {
+        return new RecyclerView.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    public void onAttachedToWindow(RecyclerView view) {
+        super.onAttachedToWindow(view);
+        mRecyclerView = view;
+        view.addItemDecoration(mGridLineDecoration);
+    }
+
+    @Override
+    public void onDetachedFromWindow(RecyclerView view, RecyclerView.Recycler recycler) {
+        super.onDetachedFromWindow(view, recycler);
+        view.removeItemDecoration(mGridLineDecoration);
+        mRecyclerView = null;
+    }
+
+    @Override
+    public void onAdapterChanged(RecyclerView.Adapter oldAdapter, RecyclerView.Adapter newAdapter) {
+        super.onAdapterChanged(oldAdapter, newAdapter);
+        isGridMeasureDirty = true;
+    }
+
+    @Override
+    public void onItemsChanged(@NonNull RecyclerView recyclerView) {
+        isGridMeasureDirty = true;
+    }
+
+    @Override
+    public void onItemsAdded(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+        invalidateGridMeasure(positionStart);
+    }
+
+    @Override
+    public void onItemsRemoved(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+        invalidateGridMeasure(positionStart);
+    }
+
+    @Override
+    public void onItemsUpdated(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+        invalidateGridMeasure(positionStart);
+    }
+
+    @Override
+    public void onItemsMoved(@NonNull RecyclerView recyclerView, int from, int to, int itemCount) {
+        invalidateGridMeasure(Math.min(from, to));
+    }
+
+    /**
+     * 改动从positionStart开始，涉及置顶控件或第一个单元格（位置0或1）时需重新测量
+     */
+    private void invalidateGridMeasure(int positionStart) {
+        if (positionStart <= 1) {
+            isGridMeasureDirty = true;
+        }
+    }
+
+    @Override
+    public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+        if (state.getItemCount() == 0) {
+            removeAndRecycleAllViews(recycler);
+            mRowCount = 0;
+            mScrollOffset = 0;
+            mFirstAttachedRow = 0;
+            mLastAttachedRow = -1;
+            isStickFirstAttached = false;
+            return;
+        }
+        if (state.isPreLayout()) {
+            return;
+        }
+        detachAndScrapAttachedViews(recycler);
+        //计算单元格尺寸及行列数
+        measureGrid(recycler, state.getItemCount());
+        //滚动到指定位置
+        if (mPendingScrollPosition != RecyclerView.NO_POSITION) {
+            mScrollOffset = getPositionTop(Math.min(mPendingScrollPosition, state.getItemCount() - 1)) - getPaddingTop();
+            mPendingScrollPosition = RecyclerView.NO_POSITION;
+        }
+        mScrollOffset = Math.max(0, Math.min(mScrollOffset, getMaxScrollOffset()));
+        fill(recycler, state.getItemCount());
+    }
+
+    /**
+     * 计算置顶控件高度、单元格尺寸、行列数及宽度余量
+     * <p>
+     * 置顶控件高度及第一个单元格的测量尺寸会被缓存，仅在数据、宽度或指定尺寸改变后重新获取控件测量
+     */
+    private void measureGrid(RecyclerView.Recycler recycler, int itemCount) {
+        final int gridWidth = getWidth() - getPaddingLeft() - getPaddingRight();
+        final int cellCount = isStickFirst ? itemCount - 1 : itemCount;
+        if (isGridMeasureDirty || mMeasuredGridWidth != gridWidth) {
+            isGridMeasureDirty = false;
+            mMeasuredGridWidth = gridWidth;
+            //测量置顶控件
+            mStickFirstHeight = 0;
+            if (isStickFirst) {
+                View stickFirst = recycler.getViewForPosition(0);
+                addView(stickFirst);
+                measureStickFirst(stickFirst);
+                mStickFirstHeight = getStickFirstHeight(stickFirst);
+                //放回scrap，fill时直接复用，无需重新绑定
+                detachAndScrapView(stickFirst, recycler);
+            }
+            //未指定单元格尺寸时，测量第一个单元格
+            mMeasuredCellWidth = 0;
+            mMeasuredCellHeight = 0;
+            if ((mAppointGridCellWidth <= 0 || mAppointGridCellHeight <= 0) && cellCount > 0) {
+                View cell = recycler.getViewForPosition(isStickFirst ? 1 : 0);
+                addView(cell);
+                RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) cell.getLayoutParams();
+                cell.measure(getChildMeasureSpec(gridWidth, View.MeasureSpec.AT_MOST, lp.leftMargin + lp.rightMargin, getWrapDimension(lp.width), true),
+                        getChildMeasureSpec(0, View.MeasureSpec.UNSPECIFIED, lp.topMargin + lp.bottomMargin, getWrapDimension(lp.height), true));
+                mMeasuredCellWidth = cell.getMeasuredWidth() + lp.leftMargin + lp.rightMargin;
+                mMeasuredCellHeight = cell.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
+                detachAndScrapView(cell, recycler);
+            }
+        }
+        //未指定单元格尺寸时，以第一个单元格的测量尺寸为准
+        final int gridCellWidth = mAppointGridCellWidth > 0 ? mAppointGridCellWidth : mMeasuredCellWidth;
+        final int gridCellHeight = mAppointGridCellHeight > 0 ? mAppointGridCellHeight : mMeasuredCellHeight;
+        //列数
+        mColumnCount = Math.max(1, (gridWidth + mGridLineWidth) / Math.max(1, gridCellWidth + mGridLineWidth));
+        //行数
+        mRowCount = cellCount <= 0 ? 0 : (cellCount + mColumnCount - 1) / mColumnCount;
+        //校正单元格宽度
+        mGridCellWidth = (gridWidth + mGridLineWidth) / mColumnCount - mGridLineWidth;
+        //单元格高度
+        mGridCellHeight = Math.max(0, gridCellHeight);
+        //网格宽度余量
+        mRemnantWidth = gridWidth + mGridLineWidth - (mGridCellWidth + mGridLineWidth) * mColumnCount;
+    }
+
+    /**
+     * 单元格测量时忽略MATCH_PARENT，与AutoWrapGridLayout一致
+     */
+    private static int getWrapDimension(int dimension) {
+        return dimension == ViewGroup.LayoutParams.MATCH_PARENT ? ViewGroup.LayoutParams.WRAP_CONTENT : dimension;
+    }
+
+    /**
+     * 获取已测量的置顶控件高度（含margin）
+     */
+    private static int getStickFirstHeight(View stickFirst) {
+        RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) stickFirst.getLayoutParams();
+        return stickFirst.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
+    }
+
+    /**
+     * 测量置顶控件
+     */
+    private void measureStickFirst(View stickFirst) {
+        RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) stickFirst.getLayoutParams();
+        final int gridWidth = getWidth() - getPaddingLeft() - getPaddingRight();
+        stickFirst.measure(getChildMeasureSpec(gridWidth, View.MeasureSpec.EXACTLY, lp.leftMargin + lp.rightMargin, lp.width, true),
+                getChildMeasureSpec(0, View.MeasureSpec.UNSPECIFIED, lp.topMargin + lp.bottomMargin, getWrapDimension(lp.height), true));
+    }
+
+    /**
+     * 重新布局可见区域内的置顶控件及单元格，回收其余控件
+     */
+    private void fill(RecyclerView.Recycler recycler, int itemCount) {
+        detachAndScrapAttachedViews(recycler);
+        //置顶控件
+        isStickFirstAttached = isStickFirstVisible();
+        if (isStickFirstAttached) {
+            View stickFirst = recycler.getViewForPosition(0);
+            layoutStickFirst(stickFirst, -1);
+            //置顶控件自身尺寸改变时不会通知数据改变，布局时同步缓存的高度
+            mStickFirstHeight = getStickFirstHeight(stickFirst);
+        }
+        //单元格
+        mFirstAttachedRow = getFirstVisibleRow();
+        mLastAttachedRow = getLastVisibleRow();
+        for (int row = mFirstAttachedRow; row <= mLastAttachedRow; row++) {
+            layoutRow(recycler, itemCount, row, -1);
+        }
+        //回收不可见的控件，recycleView会将其移出scrap，因此倒序遍历
+        final List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
+        for (int i = scrapList.size() - 1; i >= 0; i--) {
+            recycler.recycleView(scrapList.get(i).itemView);
+        }
+    }
+
+    /**
+     * 滚动后更新可见区域：回收移出可见区域的行，只添加新进入可见区域的行，已添加的控件保持不变
+     */
+    private void updateVisibleRows(RecyclerView.Recycler recycler, int itemCount) {
+        final boolean stickFirstVisible = isStickFirstVisible();
+        final int firstRow = getFirstVisibleRow();
+        final int lastRow = getLastVisibleRow();
+        //回收移出可见区域的控件
+        for (int index = getChildCount() - 1; index >= 0; index--) {
+            View child = getChildAt(index);
+            if (child == null) {
+                continue;
+            }
+            final int position = getPosition(child);
+            final boolean visible;
+            if (isStickFirst && position == 0) {
+                visible = stickFirstVisible;
+            } else {
+                final int row = (isStickFirst ? position - 1 : position) / mColumnCount;
+                visible = row >= firstRow && row <= lastRow;
+            }
+            if (!visible) {
+                removeAndRecycleViewAt(index, recycler);
+            }
+        }
+        //上方新进入的置顶控件及行插入到前面，下方新进入的行追加到后面，保持child顺序与位置顺序一致
+        int insertIndex = 0;
+        if (stickFirstVisible) {
+            if (!isStickFirstAttached) {
+                layoutStickFirst(recycler.getViewForPosition(0), insertIndex);
+            }
+            insertIndex++;
+        }
+        final boolean hasAttachedRow = mFirstAttachedRow <= mLastAttachedRow;
+        for (int row = firstRow; row <= lastRow; row++) {
+            if (hasAttachedRow && row >= mFirstAttachedRow && row <= mLastAttachedRow) {
+                continue;
+            }
+            if (hasAttachedRow && row < mFirstAttachedRow) {
+                insertIndex = layoutRow(recycler, itemCount, row, insertIndex);
+            } else {
+                layoutRow(recycler, itemCount, row, -1);
+            }
+        }
+        isStickFirstAttached = stickFirstVisible;
+        mFirstAttachedRow = firstRow;
+        mLastAttachedRow = lastRow;
+    }
+
+    /**
+     * 置顶控件是否在可见区域内
+     */
+    private boolean isStickFirstVisible() {
+        return isStickFirst && getPaddingTop() + mStickFirstHeight > mScrollOffset;
+    }
+
+    /**
+     * 返回可见区域内的第一行
+     */
+    private int getFirstVisibleRow() {
+        final int rowHeight = mGridCellHeight + mGridLineWidth;
+        return rowHeight <= 0 ? 0 : Math.max(0, (mScrollOffset - getGridTop()) / rowHeight);
+    }
+
+    /**
+     * 返回可见区域内的最后一行，没有可见行时小于{@link #getFirstVisibleRow()}
+     */
+    private int getLastVisibleRow() {
+        final int visibleBottom = mScrollOffset + getHeight();
+        final int gridTop = getGridTop();
+        if (mRowCount <= 0 || gridTop >= visibleBottom) {
+            return -1;
+        }
+        final int rowHeight = mGridCellHeight + mGridLineWidth;
+        return rowHeight <= 0 ? mRowCount - 1 : Math.min(mRowCount - 1, (visibleBottom - 1 - gridTop) / rowHeight);
+    }
+
+    /**
+     * 测量并布局置顶控件
+     *
+     * @param index 添加到的child序号，-1表示追加到末尾
+     */
+    private void layoutStickFirst(View stickFirst, int index) {
+        addView(stickFirst, index);
+        measureStickFirst(stickFirst);
+        RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) stickFirst.getLayoutParams();
+        int left = getPaddingLeft() + lp.leftMargin;
+        int top = getPaddingTop() + lp.topMargin - mScrollOffset;
+        layoutDecorated(stickFirst, left, top, left + stickFirst.getMeasuredWidth(), top + stickFirst.getMeasuredHeight());
+    }
+
+    /**
+     * 测量并布局一行单元格
+     *
+     * @param index 添加到的child序号，-1表示追加到末尾
+     * @return 下一个child序号
+     */
+    private int layoutRow(RecyclerView.Recycler recycler, int itemCount, int row, int index) {
+        final int firstCellPosition = isStickFirst ? 1 : 0;
+        for (int column = 0; column < mColumnCount; column++) {
+            int position = firstCellPosition + row * mColumnCount + column;
+            if (position >= itemCount) {
+                break;
+            }
+            layoutCell(recycler.getViewForPosition(position), row, column, index);
+            if (index >= 0) {
+                index++;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 测量并布局单元格
+     *
+     * @param index 添加到的child序号，-1表示追加到末尾
+     */
+    private void layoutCell(View child, int row, int column, int index) {
+        addView(child, index);
+        RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+        final int cellLeft = getColumnLeft(column);
+        final int cellTop = getRowTop(row) - mScrollOffset;
+        final int cellWidth = getColumnWidth(column);
+        final boolean fillGravity = (mGridCellGravity & AutoWrapGridLayout.GRAVITY_FILL) == AutoWrapGridLayout.GRAVITY_FILL;
+        final int widthDimension = fillGravity ? ViewGroup.LayoutParams.MATCH_PARENT : lp.width;
+        final int heightDimension = fillGravity ? ViewGroup.LayoutParams.MATCH_PARENT : lp.height;
+        child.measure(getChildMeasureSpec(cellWidth, View.MeasureSpec.EXACTLY, lp.leftMargin + lp.rightMargin, widthDimension, false),
+                getChildMeasureSpec(mGridCellHeight, View.MeasureSpec.EXACTLY, lp.topMargin + lp.bottomMargin, heightDimension, false));
+        //当前单元格中child的上下左右值
+        mChildFrame.set(cellLeft + lp.leftMargin, cellTop + lp.topMargin,
+                cellLeft + cellWidth - lp.rightMargin, cellTop + mGridCellHeight - lp.bottomMargin);
+        //根据对齐方式调整child的上下左右值
+        AutoWrapGridLayout.applyCellGravity(mGridCellGravity, mChildFrame, child.getMeasuredWidth(), child.getMeasuredHeight());
+        layoutDecorated(child, mChildFrame.left, mChildFrame.top, mChildFrame.right, mChildFrame.bottom);
+    }
+
+    /**
+     * 返回网格（不含置顶控件）在内容中的起始纵坐标
+     */
+    private int getGridTop() {
+        return getPaddingTop() + (isStickFirst ? mStickFirstHeight + mGridLineWidth : 0);
+    }
+
+    /**
+     * 返回指定行在内容中的起始纵坐标
+     */
+    private int getRowTop(int row) {
+        return getGridTop() + row * (mGridCellHeight + mGridLineWidth);
+    }
+
+    /**
+     * 返回指定列的左边（要考虑网格宽度余量的影响）
+     */
+    private int getColumnLeft(int column) {
+        return getPaddingLeft() + column * (mGridCellWidth + mGridLineWidth) + Math.min(column, mRemnantWidth);
+    }
+
+    /**
+     * 返回指定列的实际宽度
+     */
+    private int getColumnWidth(int column) {
+        return column < mRemnantWidth ? mGridCellWidth + 1 : mGridCellWidth;
+    }
+
+    /**
+     * 返回指定位置在内容中的起始纵坐标
+     */
+    private int getPositionTop(int position) {
+        if (isStickFirst) {
+            if (position <= 0) {
+                return getPaddingTop();
+            }
+            position--;
+        }
+        return getRowTop(position / mColumnCount);
+    }
+
+    /**
+     * 返回内容总高度
+     */
+    private int getContentHeight() {
+        if (mRowCount <= 0) {
+            return getPaddingTop() + mStickFirstHeight + getPaddingBottom();
+        }
+        return getRowTop(mRowCount) - mGridLineWidth + getPaddingBottom();
+    }
+
+    private int getMaxScrollOffset() {
+        return Math.max(0, getContentHeight() - getHeight());
+    }
+
+    @Override
+    public boolean canScrollVertically() {
+        return true;
+    }
+
+    @Override
+    public int scrollVerticallyBy(int dy, RecyclerView.Recycler recycler, RecyclerView.State state) {
+        if (getChildCount() == 0 || dy == 0) {
+            return 0;
+        }
+        final int scrollOffset = Math.max(0, Math.min(mScrollOffset + dy, getMaxScrollOffset()));
+        final int consumed = scrollOffset - mScrollOffset;
+        if (consumed != 0) {
+            mScrollOffset = scrollOffset;
+            //平移已添加的控件，无需重新测量布局
+            offsetChildrenVertical(-consumed);
+            updateVisibleRows(recycler, state.getItemCount());
+        }
+        return consumed;
+    }
+
+    @Override
+    public void scrollToPosition(int position) {
+        mPendingScrollPosition = position;
+        requestLayout();
+    }
+
+    @Override
+    public void smoothScrollToPosition(RecyclerView recyclerView, RecyclerView.State state, int position) {
+        LinearSmoothScroller smoothScroller = new LinearSmoothScroller(recyclerView.getContext());
+        smoothScroller.setTargetPosition(position);
+        startSmoothScroll(smoothScroller);
+    }
+
+    @Override
+    public PointF computeScrollVectorForPosition(int targetPosition) {
+        if (getChildCount() == 0) {
+            return null;
+        }
+        return new PointF(0, getPositionTop(targetPosition) - getPaddingTop() < mScrollOffset ? -1 : 1);
+    }
+
+    @Override
+    public int computeVerticalScrollOffset(@NonNull RecyclerView.State state) {
+        return mScrollOffset;
+    }
+
+    @Override
+    public int computeVerticalScrollExtent(@NonNull RecyclerView.State state) {
+        return getHeight();
+    }
+
+    @Override
+    public int computeVerticalScrollRange(@NonNull RecyclerView.State state) {
+        return getContentHeight();
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        Bundle bundle = new Bundle();
+        bundle.putInt(KEY_SCROLL_OFFSET, mScrollOffset);
+        return bundle;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (state instanceof Bundle) {
+            mScrollOffset = ((Bundle) state).getInt(KEY_SCROLL_OFFSET);
+            requestLayout();
+        }
+    }
+
+    /**
+     * 设置单元格尺寸，单位px，小于等于0时以第一个单元格的测量尺寸为准
+     */
+    public void setGridCellSize(int width, int height) {
+        if (mAppointGridCellWidth != width || mAppointGridCellHeight != height) {
+            mAppointGridCellWidth = width;
+            mAppointGridCellHeight = height;
+            isGridMeasureDirty = true;
+            requestLayout();
+        }
+    }
+
+    /**
+     * 获取单元格宽，单位px
+     */
+    public int getGridCellWidth() {
+        return mGridCellWidth;
+    }
+
+    /**
+     * 获取单元格高，单位px
+     */
+    public int getGridCellHeight() {
+        return mGridCellHeight;
+    }
+
+    /**
+     * 获取列数
+     */
+    public int getColumnCount() {
+        return mColumnCount;
+    }
+
+    /**
+     * 设置网格线宽度，单位px
+     */
+    public void setGridLineWidth(int width) {
+        if (mGridLineWidth != width) {
+            mGridLineWidth = width;
+            requestLayout();
+        }
+    }
+
+    /**
+     * 获取网格线宽度，单位px
+     */
+    public int getGridLineWidth() {
+        return mGridLineWidth;
+    }
+
+    /**
+     * 设置网格线颜色
+     */
+    public void setGridLineColor(int color) {
+        if (mGridLineColor != color) {
+            mGridLineColor = color;
+            mGridLineDecoration.mGridLinePaint.setColor(mGridLineColor);
+            //只影响网格线的绘制，无需重新布局
+            if (mRecyclerView != null) {
+                mRecyclerView.invalidate();
+            }
+        }
+    }
+
+    /**
+     * 获取网格线颜色
+     */
+    public int getGridLineColor() {
+        return mGridLineColor;
+    }
+
+    /**
+     * 设置第一项是否置顶
+     */
+    public void setStickFirst(boolean stick) {
+        if (isStickFirst != stick) {
+            isStickFirst = stick;
+            isGridMeasureDirty = true;
+            requestLayout();
+        }
+    }
+
+    /**
+     * 获取第一项是否置顶
+     */
+    public boolean isStickFirst() {
+        return isStickFirst;
+    }
+
+    /**
+     * 设置单元格对齐方式
+     */
+    public void setGridCellGravity(int gravity) {
+        if (mGridCellGravity != gravity) {
+            mGridCellGravity = gravity;
+            requestLayout();
+        }
+    }
+
+    /**
+     * 获取单元格对齐方式
+     */
+    public int getGridCellGravity() {
+        return mGridCellGravity;
+    }
+
+    /**
+     * 网格线绘制，按可见行列计算网格线位置
+     */
+    private class GridLineDecoration extends RecyclerView.ItemDecoration {
+
+        /**
+         * 网格线画笔
+         */
+        private final Paint mGridLinePaint = new Paint();
+
+        @Override
+        public void onDraw(@NonNull Canvas canvas, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+            //网格线的颜色为透明，则不进行绘制
+            if (mGridLineWidth <= 0 || mGridLineColor >>> 24 <= 0 || getChildCount() == 0) {
+                return;
+            }
+            final int width = getWidth();
+            final int height = getHeight();
+            //置顶控件下边网格线
+            if (isStickFirst) {
+                int lineTop = getPaddingTop() + mStickFirstHeight - mScrollOffset;
+                if (lineTop + mGridLineWidth > 0 && lineTop < height) {
+                    canvas.drawRect(0, lineTop, width, lineTop + mGridLineWidth, mGridLinePaint);
+                }
+            }
+            final int rowHeight = mGridCellHeight + mGridLineWidth;
+            final int cellCount = isStickFirst ? state.getItemCount() - 1 : state.getItemCount();
+            int firstRow = rowHeight <= 0 ? 0 : Math.max(0, (mScrollOffset - getGridTop()) / rowHeight);
+            for (int row = firstRow; row < mRowCount; row++) {
+                final int cellTop = getRowTop(row) - mScrollOffset;
+                if (cellTop >= height) {
+                    break;
+                }
+                final int cellBottom = cellTop + mGridCellHeight;
+                //不是最后一行，绘制下边网格线
+                if (row < mRowCount - 1) {
+                    canvas.drawRect(0, cellBottom, width, cellBottom + mGridLineWidth, mGridLinePaint);
+                }
+                //绘制单元格右边网格线，最后一列除外
+                final int columnCount = Math.min(mColumnCount, cellCount - row * mColumnCount);
+                for (int column = 0; column < columnCount && column < mColumnCount - 1; column++) {
+                    int cellRight = getColumnLeft(column) + getColumnWidth(column);
+                    canvas.drawRect(cellRight, cellTop, cellRight + mGridLineWidth, cellBottom, mGridLinePaint);
+                }
+            }
+        }
+
+    }
+
+}
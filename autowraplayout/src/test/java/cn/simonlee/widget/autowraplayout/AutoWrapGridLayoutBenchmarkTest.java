@@ -0,0 +1,242 @@
+package cn.simonlee.widget.autowraplayout;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Picture;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * AutoWrapGridLayout测量/布局/绘制基准测试，在JVM上通过Robolectric执行真实的测量布局代码
+ * <p>
+ * 按子控件数量、对齐方式、首行独占、单元格尺寸是否指定组合出不同配置，分别统计：
+ * 1.冷测量：所有子控件请求重新布局后的测量耗时及每个子控件的onMeasure次数；
+ * 2.热测量：仅布局本身请求重新布局时的测量耗时及每个子控件的onMeasure次数；
+ * 3.布局、绘制耗时（绘制录制到Picture，不光栅化）。
+ * <p>
+ * 结果以JSON写入build/outputs/benchmark/autowrap_benchmark.json，便于对比回归。
+ * 耗时受JVM及Robolectric影响，仅用于同一环境下的前后对比；onMeasure次数与环境无关。
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class AutoWrapGridLayoutBenchmarkTest {
+
+    /**
+     * 结果文件名
+     */
+    private static final String RESULT_FILE_NAME = "autowrap_benchmark.json";
+
+    /**
+     * 子控件数量
+     */
+    private static final int[] CHILD_COUNTS = {10, 100, 1000};
+
+    /**
+     * 对齐方式
+     */
+    private static final int[] GRAVITIES = {
+            AutoWrapGridLayout.GRAVITY_FILL,
+            AutoWrapGridLayout.GRAVITY_CENTER,
+            AutoWrapGridLayout.GRAVITY_LEFT | AutoWrapGridLayout.GRAVITY_TOP};
+
+    /**
+     * 每个配置的重复次数，取平均值
+     */
+    private static final int ITERATIONS = 10;
+
+    /**
+     * 预热次数，不计入结果
+     */
+    private static final int WARMUP_ITERATIONS = 3;
+
+    /**
+     * 布局宽度，单位px
+     */
+    private static final int LAYOUT_WIDTH = 1080;
+
+    /**
+     * 单元格指定尺寸，单位px
+     */
+    private static final int CELL_SIZE = 144;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+    }
+
+    @Test
+    public void benchmark() throws JSONException, IOException {
+        JSONArray results = new JSONArray();
+        for (int childCount : CHILD_COUNTS) {
+            for (int gravity : GRAVITIES) {
+                for (int stickFirst = 0; stickFirst < 2; stickFirst++) {
+                    for (int appointCellSize = 0; appointCellSize < 2; appointCellSize++) {
+                        JSONObject result = runConfig(childCount, gravity, stickFirst == 1, appointCellSize == 1);
+                        //冷测量时每个子控件至少测量一次
+                        assertTrue(result.toString(), result.getDouble("coldMeasurePerChild") >= 1D);
+                        results.put(result);
+                    }
+                }
+            }
+        }
+        JSONObject json = new JSONObject();
+        json.put("layoutWidth", LAYOUT_WIDTH);
+        json.put("iterations", ITERATIONS);
+        json.put("results", results);
+        writeResult(json);
+    }
+
+    /**
+     * 执行单个配置
+     */
+    private JSONObject runConfig(int childCount, int gravity, boolean stickFirst, boolean appointCellSize) throws JSONException {
+        AutoWrapGridLayout layout = new AutoWrapGridLayout(mContext);
+        layout.setGridCellGravity(gravity);
+        layout.setStickFirst(stickFirst);
+        layout.setGridLineWidth(1);
+        layout.setGridLineColor(0xFFDDDDDD);
+        layout.setGridCellSize(appointCellSize ? CELL_SIZE : 0, appointCellSize ? CELL_SIZE : 0);
+        CountingView[] children = new CountingView[childCount];
+        for (int i = 0; i < childCount; i++) {
+            children[i] = new CountingView(mContext, CELL_SIZE / 2 + i % 7, CELL_SIZE / 2 + i % 5);
+            layout.addView(children[i], new ViewGroup.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        }
+        final int widthMeasureSpec = View.MeasureSpec.makeMeasureSpec(LAYOUT_WIDTH, View.MeasureSpec.EXACTLY);
+        final int heightMeasureSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        Picture picture = new Picture();
+
+        long coldMeasureNanos = 0, warmMeasureNanos = 0, layoutNanos = 0, drawNanos = 0;
+        long coldMeasureCount = 0, warmMeasureCount = 0;
+        for (int iteration = -WARMUP_ITERATIONS; iteration < ITERATIONS; iteration++) {
+            final boolean record = iteration >= 0;
+            //冷测量：所有子控件请求重新布局
+            for (CountingView child : children) {
+                child.forceLayout();
+            }
+            layout.forceLayout();
+            resetMeasureCount(children);
+            long start = System.nanoTime();
+            layout.measure(widthMeasureSpec, heightMeasureSpec);
+            if (record) {
+                coldMeasureNanos += System.nanoTime() - start;
+                coldMeasureCount += sumMeasureCount(children);
+            }
+            //热测量：仅布局本身请求重新布局
+            layout.forceLayout();
+            resetMeasureCount(children);
+            start = System.nanoTime();
+            layout.measure(widthMeasureSpec, heightMeasureSpec);
+            if (record) {
+                warmMeasureNanos += System.nanoTime() - start;
+                warmMeasureCount += sumMeasureCount(children);
+            }
+            //布局
+            start = System.nanoTime();
+            layout.layout(0, 0, layout.getMeasuredWidth(), layout.getMeasuredHeight());
+            if (record) {
+                layoutNanos += System.nanoTime() - start;
+            }
+            //绘制
+            Canvas canvas = picture.beginRecording(layout.getWidth(), layout.getHeight());
+            start = System.nanoTime();
+            layout.draw(canvas);
+            if (record) {
+                drawNanos += System.nanoTime() - start;
+            }
+            picture.endRecording();
+        }
+
+        JSONObject result = new JSONObject();
+        result.put("childCount", childCount);
+        result.put("gravity", gravity);
+        result.put("stickFirst", stickFirst);
+        result.put("appointCellSize", appointCellSize);
+        result.put("coldMeasureMicros", coldMeasureNanos / 1000D / ITERATIONS);
+        result.put("coldMeasurePerChild", 1D * coldMeasureCount / ITERATIONS / childCount);
+        result.put("warmMeasureMicros", warmMeasureNanos / 1000D / ITERATIONS);
+        result.put("warmMeasurePerChild", 1D * warmMeasureCount / ITERATIONS / childCount);
+        result.put("layoutMicros", layoutNanos / 1000D / ITERATIONS);
+        result.put("drawMicros", drawNanos / 1000D / ITERATIONS);
+        return result;
+    }
+
+    private static void resetMeasureCount(CountingView[] children) {
+        for (CountingView child : children) {
+            child.mMeasureCount = 0;
+        }
+    }
+
+    private static long sumMeasureCount(CountingView[] children) {
+        long count = 0;
+        for (CountingView child : children) {
+            count += child.mMeasureCount;
+        }
+        return count;
+    }
+
+    /**
+     * 写入结果，输出目录由build.gradle通过系统属性benchmark.outputDir指定
+     */
+    private static void writeResult(JSONObject json) throws JSONException, IOException {
+        File dir = new File(System.getProperty("benchmark.outputDir", "build/outputs/benchmark"));
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Failed to create " + dir);
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(new File(dir, RESULT_FILE_NAME)), "UTF-8");
+        try {
+            writer.write(json.toString(2));
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * 固定尺寸并统计onMeasure次数的子控件
+     */
+    private static class CountingView extends View {
+
+        private final int mContentWidth, mContentHeight;
+
+        private int mMeasureCount;
+
+        CountingView(Context context, int contentWidth, int contentHeight) {
+            super(context);
+            this.mContentWidth = contentWidth;
+            this.mContentHeight = contentHeight;
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            mMeasureCount++;
+            setMeasuredDimension(resolveSize(mContentWidth, widthMeasureSpec), resolveSize(mContentHeight, heightMeasureSpec));
+        }
+
+    }
+
+}
@@ -3,16 +3,21 @@ package cn.simonlee.widget.badgeview;
 import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Rect;
+import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
-import android.graphics.drawable.GradientDrawable;
+import android.os.Build;
 import android.text.TextPaint;
 import android.util.AttributeSet;
 import android.view.View;
 
+import java.util.HashMap;
+import java.util.WeakHashMap;
+
 import androidx.annotation.DrawableRes;
 import androidx.core.content.res.ResourcesCompat;
 
@@ -72,10 +77,15 @@ public class Badge {
     public static final int GRAVITY_CENTER = 16;
 
     /**
-     * 目标View
+     * 目标View，为null时由外部指定宿主尺寸并绘制（如{@link BadgeItemDecoration}）
      */
     private final View mTargetView;
 
+    /**
+     * 上下文
+     */
+    private final Context mContext;
+
     /**
      * 角标文本，为null时不显示，长度0时显示小圆点
      */
@@ -101,6 +111,41 @@ public class Badge {
      */
     private Drawable mBadgeBackground;
 
+    /**
+     * 默认背景的圆角半径，超过宽高一半时按一半处理，即两端为半圆
+     */
+    private static final float DEFAULT_BACKGROUND_CORNER_RADIUS = 9999;
+
+    /**
+     * 是否使用默认背景，默认背景由{@link BadgeBackgroundCache}提供共享位图
+     */
+    private boolean isDefaultBackground;
+
+    /**
+     * 默认背景颜色
+     */
+    private int mBadgeBackgroundColor = Color.RED;
+
+    /**
+     * 当前使用的默认背景位图
+     */
+    private Bitmap mBackgroundBitmap;
+
+    /**
+     * 当前默认背景位图的颜色
+     */
+    private int mBackgroundBitmapColor;
+
+    /**
+     * 角标整体透明度，由{@link BadgeDrawable#setAlpha(int)}设置
+     */
+    private int mBadgeAlpha = 255;
+
+    /**
+     * 透明度不为255时绘制默认背景位图的画笔
+     */
+    private Paint mBackgroundBitmapPaint;
+
     /**
      * 角标内边距
      */
@@ -151,8 +196,66 @@ public class Badge {
      */
     private int mViewWidth, mViewHeight;
 
+    /**
+     * 不依附于View时的重绘回调，由外部负责重绘（如{@link BadgeDrawable}）
+     */
+    Runnable mInvalidateCallback;
+
+    /**
+     * 等待刷新期间角标需要重绘的区域
+     */
+    private final Rect mDirtyBounds = new Rect();
+
+    /**
+     * 是否已提交到{@link BadgeUpdateScheduler}等待刷新
+     */
+    boolean isUpdatePending;
+
+    /**
+     * 数字角标可显示的最大字符数（int最大值10位，加上"+"）
+     */
+    private static final int MAX_COUNT_LENGTH = 11;
+
+    /**
+     * 数字字符及"+"，用于计算字符宽度
+     */
+    private static final String COUNT_CHARS = "0123456789+";
+
+    /**
+     * 各画笔配置下数字字符及"+"的宽度缓存，相同配置的角标共享
+     * <p>
+     * 按Typeface实例分组（弱引用，不影响字体回收），组内以字体大小及是否加粗为键
+     */
+    private static final WeakHashMap<Typeface, HashMap<Long, float[]>> sCountCharWidthsCache = new WeakHashMap<>();
+
+    /**
+     * 是否为数字角标，数字角标的文本保存在{@link #mCountChars}中
+     */
+    private boolean isCountMode;
+
+    /**
+     * 数字角标文本
+     */
+    private final char[] mCountChars = new char[MAX_COUNT_LENGTH];
+
+    /**
+     * 数字角标格式化缓冲区
+     */
+    private final char[] mCountCharsBuffer = new char[MAX_COUNT_LENGTH];
+
+    /**
+     * 数字角标文本长度
+     */
+    private int mCountLength;
+
+    /**
+     * 当前画笔配置下数字字符及"+"的宽度，下标0-9为数字，10为"+"
+     */
+    private float[] mCountCharWidths;
+
     public Badge(View targetView, AttributeSet attributeSet) {
         this.mTargetView = targetView;
+        this.mContext = targetView.getContext();
         mTargetView.addOnLayoutChangeListener(new View.OnLayoutChangeListener() {
             @Override
             public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
@@ -170,6 +273,16 @@ public class Badge {
         }
     }
 
+    /**
+     * 创建不依附于View的角标，通过{@link #setHostSize(int, int)}指定宿主尺寸，由外部调用{@link #drawBadge(Canvas)}绘制
+     */
+    public Badge(Context context, AttributeSet attributeSet) {
+        this.mTargetView = null;
+        this.mContext = context;
+        //初始化变量
+        initBadge(context, attributeSet);
+    }
+
     /**
      * 初始化变量
      */
@@ -183,13 +296,8 @@ public class Badge {
         this.mBadgeGravity = typedArray.getInt(R.styleable.Badge_badge_gravity, GRAVITY_TOP | GRAVITY_RIGHT);
         //角标背景
         this.mBadgeBackground = typedArray.getDrawable(R.styleable.Badge_badge_background);
-        //无背景则设置默认红色圆角背景
-        if (mBadgeBackground == null) {
-            GradientDrawable gradientDrawable = new GradientDrawable();
-            gradientDrawable.setColor(Color.RED);
-            gradientDrawable.setCornerRadius(9999);
-            mBadgeBackground = gradientDrawable;
-        }
+        //无背景则使用默认红色圆角背景
+        this.isDefaultBackground = mBadgeBackground == null;
         //角标内边距
         float badgePadding = typedArray.getDimension(R.styleable.Badge_badge_padding, -1);
         //角标内左边距，默认值4dp
@@ -251,6 +359,9 @@ public class Badge {
      * 获取角标文本
      */
     public String getBadgeText() {
+        if (isCountMode) {
+            return new String(mCountChars, 0, mCountLength);
+        }
         return mBadgeText;
     }
 
@@ -260,20 +371,174 @@ public class Badge {
      * @param badgeText 为null时不显示，长度为0时显示小圆点
      */
     public void setBadgeText(String badgeText) {
-        if ((mBadgeText == null && badgeText != null) || (mBadgeText != null && !mBadgeText.equals(badgeText))) {
+        if (isCountMode || (mBadgeText == null && badgeText != null) || (mBadgeText != null && !mBadgeText.equals(badgeText))) {
+            isCountMode = false;
             mBadgeText = badgeText;
             measureBackgroundBounds();
             invalidate();
         }
     }
 
+    /**
+     * 设置数字角标，格式化过程不创建字符串，适用于频繁更新未读数的场景
+     * 宽度由缓存的数字字符宽度累加得到，位数及角标宽度不变时不重新计算边界
+     *
+     * @param count         数字，小于等于0时不显示
+     * @param maxBeforePlus 最大显示数字，超过时显示为maxBeforePlus+"+"，小于等于0时不限制
+     */
+    public void setBadgeCount(int count, int maxBeforePlus) {
+        if (count <= 0) {
+            setBadgeText(null);
+            return;
+        }
+        //格式化到缓冲区
+        boolean overflow = maxBeforePlus > 0 && count > maxBeforePlus;
+        int length = formatCount(overflow ? maxBeforePlus : count, overflow, mCountCharsBuffer);
+        //文本未变化
+        if (isCountMode && length == mCountLength && equalsCountChars(mCountCharsBuffer, length)) {
+            return;
+        }
+        boolean boundsChanged = !isCountMode || length != mCountLength;
+        if (!boundsChanged) {
+            //位数不变时，仅在角标宽度变化时重新计算边界
+            boundsChanged = measureBackgroundWidth(measureCountWidth(mCountCharsBuffer, length)) != mBadgeBackgroundBounds.width();
+        }
+        System.arraycopy(mCountCharsBuffer, 0, mCountChars, 0, length);
+        mCountLength = length;
+        mBadgeText = null;
+        isCountMode = true;
+        if (boundsChanged) {
+            measureBackgroundBounds();
+        }
+        invalidate();
+    }
+
+    /**
+     * 将数字格式化到字符数组中
+     *
+     * @return 字符长度
+     */
+    private static int formatCount(int value, boolean overflow, char[] chars) {
+        int length = 0;
+        for (int temp = value; temp > 0; temp /= 10) {
+            length++;
+        }
+        for (int index = length - 1, temp = value; index >= 0; index--, temp /= 10) {
+            chars[index] = (char) ('0' + temp % 10);
+        }
+        if (overflow) {
+            chars[length++] = '+';
+        }
+        return length;
+    }
+
+    /**
+     * 比较数字角标文本与缓冲区是否一致
+     */
+    private boolean equalsCountChars(char[] chars, int length) {
+        for (int i = 0; i < length; i++) {
+            if (mCountChars[i] != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 根据缓存的字符宽度计算数字角标文本宽度
+     */
+    private float measureCountWidth(char[] chars, int length) {
+        if (mCountCharWidths == null) {
+            mCountCharWidths = obtainCountCharWidths(mBadgeTextPaint);
+        }
+        float width = 0;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            width += mCountCharWidths[c == '+' ? 10 : c - '0'];
+        }
+        return width;
+    }
+
+    /**
+     * 获取画笔配置对应的数字字符宽度，相同配置共享缓存
+     */
+    private static float[] obtainCountCharWidths(TextPaint paint) {
+        if (paint.getTextScaleX() != 1F || Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP && paint.getLetterSpacing() != 0F) {
+            //非默认的横向缩放或字间距不在缓存键中，直接测量
+            return measureCountCharWidths(paint);
+        }
+        final Typeface typeface = paint.getTypeface();
+        HashMap<Long, float[]> typefaceCache = sCountCharWidthsCache.get(typeface);
+        if (typefaceCache == null) {
+            typefaceCache = new HashMap<>();
+            sCountCharWidthsCache.put(typeface, typefaceCache);
+        }
+        final long key = ((long) Float.floatToIntBits(paint.getTextSize()) << 1) | (paint.isFakeBoldText() ? 1 : 0);
+        float[] widths = typefaceCache.get(key);
+        if (widths == null) {
+            widths = measureCountCharWidths(paint);
+            typefaceCache.put(key, widths);
+        }
+        return widths;
+    }
+
+    /**
+     * 测量数字字符及"+"的宽度
+     */
+    private static float[] measureCountCharWidths(TextPaint paint) {
+        float[] widths = new float[COUNT_CHARS.length()];
+        paint.getTextWidths(COUNT_CHARS, widths);
+        return widths;
+    }
+
     /**
      * 设置角标字体颜色
      */
     public void setBadgeTextColor(int color) {
         mBadgeTextColor = color;
+        updateTextPaintColor();
+        invalidate();
+    }
+
+    /**
+     * 按整体透明度更新字体颜色
+     */
+    private void updateTextPaintColor() {
         mBadgeTextPaint.setColor(mBadgeTextColor);
-        mTargetView.invalidate();
+        if (mBadgeAlpha != 255) {
+            mBadgeTextPaint.setAlpha(Color.alpha(mBadgeTextColor) * mBadgeAlpha / 255);
+        }
+    }
+
+    /**
+     * 设置角标整体透明度，作用于背景及文本
+     *
+     * @param alpha 0~255
+     */
+    void setBadgeAlpha(int alpha) {
+        alpha = Math.max(0, Math.min(255, alpha));
+        if (mBadgeAlpha == alpha) {
+            return;
+        }
+        mBadgeAlpha = alpha;
+        updateTextPaintColor();
+        if (mBadgeBackground != null) {
+            //避免修改共享的Drawable状态
+            mBadgeBackground = mBadgeBackground.mutate();
+            mBadgeBackground.setAlpha(alpha);
+        }
+        if (mBackgroundBitmapPaint == null) {
+            mBackgroundBitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        }
+        mBackgroundBitmapPaint.setAlpha(alpha);
+        invalidate();
+    }
+
+    /**
+     * 返回角标整体透明度
+     */
+    int getBadgeAlpha() {
+        return mBadgeAlpha;
     }
 
     /**
@@ -285,6 +550,7 @@ public class Badge {
         if (size > 0 && mBadgeTextSize != size) {
             mBadgeTextSize = size;
             mBadgeTextPaint.setTextSize(mBadgeTextSize);
+            mCountCharWidths = null;
             measureTextHeight();
             measureBackgroundBounds();
             invalidate();
@@ -298,6 +564,7 @@ public class Badge {
         if (mBoldTextEnable != boldEnable) {
             mBoldTextEnable = boldEnable;
             mBadgeTextPaint.setFakeBoldText(mBoldTextEnable);
+            mCountCharWidths = null;
             measureTextHeight();
             measureBackgroundBounds();
             invalidate();
@@ -309,7 +576,26 @@ public class Badge {
      */
     public void setBadgeBackground(Drawable drawable) {
         mBadgeBackground = drawable;
-        mTargetView.invalidate();
+        if (drawable != null && mBadgeAlpha != 255) {
+            //避免修改共享的Drawable状态
+            mBadgeBackground = drawable.mutate();
+            mBadgeBackground.setAlpha(mBadgeAlpha);
+        }
+        isDefaultBackground = false;
+        mBackgroundBitmap = null;
+        invalidate();
+    }
+
+    /**
+     * 设置角标背景颜色，使用默认圆角背景
+     */
+    public void setBadgeBackgroundColor(int color) {
+        if (!isDefaultBackground || mBadgeBackgroundColor != color) {
+            mBadgeBackground = null;
+            isDefaultBackground = true;
+            mBadgeBackgroundColor = color;
+            invalidate();
+        }
     }
 
     /**
@@ -317,7 +603,7 @@ public class Badge {
      */
     public void setBadgeBackgroundResource(@DrawableRes int resid) {
         try {
-            setBadgeBackground(ResourcesCompat.getDrawable(mTargetView.getResources(), resid, null));
+            setBadgeBackground(ResourcesCompat.getDrawable(mContext.getResources(), resid, null));
         } catch (Resources.NotFoundException e) {
             e.printStackTrace();
         }
@@ -430,7 +716,7 @@ public class Badge {
     public void setBadgeDotRadius(int dotRadius) {
         if (dotRadius > 0 && mBadgeDotRadius != dotRadius) {
             mBadgeDotRadius = dotRadius;
-            if (mBadgeText != null && mBadgeText.length() < 1) {
+            if (!isCountMode && mBadgeText != null && mBadgeText.length() < 1) {
                 measureBackgroundBounds();
                 invalidate();
             }
@@ -460,41 +746,63 @@ public class Badge {
      * 不建议在onDraw中调用，因为可能会被目标View的前景遮挡，且ViewGroup在透明背景时不会调用onDraw
      */
     public void drawBadge(Canvas canvas) {
-        if (mBadgeText == null) {
+        if (!isCountMode && mBadgeText == null) {
             return;
         }
         //绘制背景
-        if (mBadgeBackground != null) {
+        if (isDefaultBackground) {
+            drawDefaultBackground(canvas);
+        } else if (mBadgeBackground != null) {
             mBadgeBackground.setBounds(mBadgeBackgroundBounds.left, mBadgeBackgroundBounds.top, mBadgeBackgroundBounds.right, mBadgeBackgroundBounds.bottom);
             mBadgeBackground.draw(canvas);
         }
         //绘制文本
-        if (mBadgeText.length() > 0) {
+        if (isCountMode || mBadgeText.length() > 0) {
             //计算文本对齐坐标
             float baseX = mBadgeBackgroundBounds.left + (mBadgeBackgroundBounds.width() + mBadgePaddingLeft - mBadgePaddingRight) / 2F;
             float baseY = mBadgeBackgroundBounds.top + (mBadgeBackgroundBounds.height() + mBadgePaddingTop - mBadgePaddingBottom - mBadgeTextFontMetrics.bottom - mBadgeTextFontMetrics.top) / 2F;
-            canvas.drawText(mBadgeText, baseX, baseY, mBadgeTextPaint);
+            if (isCountMode) {
+                canvas.drawText(mCountChars, 0, mCountLength, baseX, baseY, mBadgeTextPaint);
+            } else {
+                canvas.drawText(mBadgeText, baseX, baseY, mBadgeTextPaint);
+            }
         }
     }
 
+    /**
+     * 绘制默认背景，使用共享的预绘制位图
+     */
+    private void drawDefaultBackground(Canvas canvas) {
+        final int width = mBadgeBackgroundBounds.width();
+        final int height = mBadgeBackgroundBounds.height();
+        if (width < 1 || height < 1) {
+            return;
+        }
+        //尺寸或颜色变化时重新获取位图
+        if (mBackgroundBitmap == null || mBackgroundBitmap.getWidth() != width || mBackgroundBitmap.getHeight() != height || mBackgroundBitmapColor != mBadgeBackgroundColor) {
+            mBackgroundBitmap = BadgeBackgroundCache.obtain(width, height, mBadgeBackgroundColor, DEFAULT_BACKGROUND_CORNER_RADIUS);
+            mBackgroundBitmapColor = mBadgeBackgroundColor;
+        }
+        canvas.drawBitmap(mBackgroundBitmap, mBadgeBackgroundBounds.left, mBadgeBackgroundBounds.top, mBadgeAlpha == 255 ? null : mBackgroundBitmapPaint);
+    }
+
     /**
      * 计算角标背景尺寸
      */
     private void measureBackgroundBounds() {
-        if (mBadgeText == null) {
+        if (!isCountMode && mBadgeText == null) {
             return;
         }
         int backgroundWidth, backgroundHeight;
         //确定角标的宽高
-        if (mBadgeText.length() < 1) {
+        if (!isCountMode && mBadgeText.length() < 1) {
             //文本长度为0，只显示一个小圆点
             backgroundWidth = backgroundHeight = (int) (2F * mBadgeDotRadius + 0.5F);
         } else {
             //根据文本长度计算角标的宽高
             backgroundHeight = (int) (mBadgePaddingTop + mBadgePaddingBottom + mBadgeTextHeight + 0.5F);
-            float badgeTextWidth = mBadgeTextPaint.measureText(mBadgeText);
-            //角标的宽不能小于高
-            backgroundWidth = Math.max(backgroundHeight, (int) (mBadgePaddingLeft + mBadgePaddingRight + badgeTextWidth + 0.5F));
+            float badgeTextWidth = isCountMode ? measureCountWidth(mCountChars, mCountLength) : mBadgeTextPaint.measureText(mBadgeText);
+            backgroundWidth = measureBackgroundWidth(badgeTextWidth);
         }
 
         int left, top, right, bottom;
@@ -526,10 +834,38 @@ public class Badge {
             top = Math.max(0, (int) (mBadgeOffsetY - backgroundHeight / 2F + 0.5F));
             bottom = top + backgroundHeight;
         }
+        //记录原边界，刷新时一并重绘
+        mDirtyBounds.union(mBadgeBackgroundBounds);
         //设置角标的边界值
         mBadgeBackgroundBounds.set(left, top, right, bottom);
     }
 
+    /**
+     * 指定宿主尺寸，仅用于不依附于View的角标，尺寸变化时重新计算角标边界
+     */
+    void setHostSize(int width, int height) {
+        if (mViewWidth != width || mViewHeight != height) {
+            mViewWidth = width;
+            mViewHeight = height;
+            measureBackgroundBounds();
+        }
+    }
+
+    /**
+     * 是否有角标需要绘制
+     */
+    boolean isBadgeVisible() {
+        return isCountMode || mBadgeText != null;
+    }
+
+    /**
+     * 根据文本宽度计算角标背景宽度，角标的宽不能小于高
+     */
+    private int measureBackgroundWidth(float badgeTextWidth) {
+        int backgroundHeight = (int) (mBadgePaddingTop + mBadgePaddingBottom + mBadgeTextHeight + 0.5F);
+        return Math.max(backgroundHeight, (int) (mBadgePaddingLeft + mBadgePaddingRight + badgeTextWidth + 0.5F));
+    }
+
     /**
      * 返回角标总宽
      */
@@ -545,14 +881,33 @@ public class Badge {
     }
 
     /**
-     * 重绘
+     * 重绘，同一帧内的多次调用由{@link BadgeUpdateScheduler}合并为一次刷新
      */
     public void invalidate() {
+        if (mTargetView == null) {
+            //不依附于View的角标由外部负责重绘
+            mDirtyBounds.setEmpty();
+            if (mInvalidateCallback != null) {
+                mInvalidateCallback.run();
+            }
+            return;
+        }
+        BadgeUpdateScheduler.getInstance().schedule(this);
+    }
+
+    /**
+     * 由{@link BadgeUpdateScheduler}在帧回调中调用，刷新角标
+     */
+    void applyUpdate() {
+        mDirtyBounds.union(mBadgeBackgroundBounds);
         if (this.mTargetView instanceof BadgeView) {
-            ((BadgeView) this.mTargetView).refreshBadge();
-        } else {
+            ((BadgeView) this.mTargetView).refreshBadge(mDirtyBounds);
+        } else if (mDirtyBounds.isEmpty()) {
             this.mTargetView.invalidate();
+        } else {
+            this.mTargetView.invalidate(mDirtyBounds);
         }
+        mDirtyBounds.setEmpty();
     }
 
 }
@@ -0,0 +1,143 @@
+package cn.simonlee.widget.badgeview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.LruCache;
+
+import androidx.annotation.MainThread;
+
+/**
+ * 角标默认背景缓存，按(宽, 高, 颜色, 圆角半径)缓存预先绘制的圆角矩形位图，所有角标共享
+ * <p>
+ * 绘制角标默认背景时只需一次位图绘制，无需每次重新光栅化圆角矩形。
+ * 被淘汰的位图不会主动回收，仍在使用的角标可继续绘制，直至更新背景时重新获取。
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+@MainThread
+public final class BadgeBackgroundCache {
+
+    /**
+     * 默认缓存大小，单位byte
+     */
+    private static final int DEFAULT_MAX_SIZE = 1024 * 1024;
+
+    private static final LruCache<Key, Bitmap> sCache = new LruCache<Key, Bitmap>(DEFAULT_MAX_SIZE) {
+        @Override
+        protected int sizeOf(Key key, Bitmap value) {
+            return value.getRowBytes() * value.getHeight();
+        }
+    };
+
+    /**
+     * 用于查找缓存的键，避免每次查找创建新对象
+     */
+    private static final Key sLookupKey = new Key();
+
+    /**
+     * 背景画笔
+     */
+    private static Paint sPaint;
+
+    /**
+     * 背景区域
+     */
+    private static final RectF sRect = new RectF();
+
+    private BadgeBackgroundCache() {
+    }
+
+    /**
+     * 获取背景位图，不存在时绘制并加入缓存
+     *
+     * @param width        宽度
+     * @param height       高度
+     * @param color        颜色
+     * @param cornerRadius 圆角半径，超过宽高一半时按一半处理
+     */
+    static Bitmap obtain(int width, int height, int color, float cornerRadius) {
+        sLookupKey.set(width, height, color, cornerRadius);
+        Bitmap bitmap = sCache.get(sLookupKey);
+        if (bitmap == null) {
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            if (sPaint == null) {
+                sPaint = new Paint();
+                sPaint.setDither(true);//防抖动
+                sPaint.setAntiAlias(true);//抗锯齿
+            }
+            sPaint.setColor(color);
+            float radius = Math.min(cornerRadius, Math.min(width, height) / 2F);
+            sRect.set(0, 0, width, height);
+            new Canvas(bitmap).drawRoundRect(sRect, radius, radius, sPaint);
+            Key key = new Key();
+            key.set(width, height, color, cornerRadius);
+            sCache.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * 设置缓存大小，单位byte
+     */
+    public static void setMaxSize(int maxSize) {
+        sCache.resize(maxSize);
+    }
+
+    /**
+     * 清空缓存，可在onTrimMemory时调用
+     */
+    public static void evictAll() {
+        sCache.evictAll();
+    }
+
+    /**
+     * 返回当前缓存大小，单位byte
+     */
+    public static int size() {
+        return sCache.size();
+    }
+
+    private static final class Key {
+
+        private int width;
+        private int height;
+        private int color;
+        private float cornerRadius;
+
+        void set(int width, int height, int color, float cornerRadius) {
+            this.width = width;
+            this.height = height;
+            this.color = color;
+            this.cornerRadius = cornerRadius;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return width == key.width && height == key.height && color == key.color && Float.compare(cornerRadius, key.cornerRadius) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = width;
+            result = 31 * result + height;
+            result = 31 * result + color;
+            result = 31 * result + Float.floatToIntBits(cornerRadius);
+            return result;
+        }
+
+    }
+
+}
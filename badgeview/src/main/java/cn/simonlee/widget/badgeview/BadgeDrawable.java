@@ -0,0 +1,151 @@
+package cn.simonlee.widget.badgeview;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 角标Drawable，通过{@link View#getOverlay()}附加到任意View上显示角标，无需自定义View实现IBadge
+ * <p>
+ * 用法：
+ * 1.创建BadgeDrawable，通过{@link #getBadge()}设置角标文本及样式；
+ * 2.调用{@link #attach(View)}附加到目标View，调用{@link #detach()}移除。
+ * <p>
+ * 注：ViewOverlay要求SDK18(Android4.3)及以上，低版本调用{@link #attach(View)}将抛出{@link UnsupportedOperationException}。
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+public class BadgeDrawable extends Drawable {
+
+    /**
+     * 角标
+     */
+    private final Badge mBadge;
+
+    /**
+     * 目标View
+     */
+    private View mTargetView;
+
+    /**
+     * 跟踪目标View尺寸变化
+     */
+    private final View.OnLayoutChangeListener mOnLayoutChangeListener = new View.OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            updateBounds(right - left, bottom - top);
+        }
+    };
+
+    public BadgeDrawable(Context context) {
+        this(context, null);
+    }
+
+    /**
+     * @param attributeSet 角标自定义属性，与{@link Badge}一致
+     */
+    public BadgeDrawable(Context context, @Nullable AttributeSet attributeSet) {
+        mBadge = new Badge(context, attributeSet);
+        mBadge.mInvalidateCallback = new Runnable() {
+            @Override
+            public void run() {
+                invalidateSelf();
+            }
+        };
+    }
+
+    /**
+     * 返回角标，用于设置角标文本及样式
+     */
+    public Badge getBadge() {
+        return mBadge;
+    }
+
+    /**
+     * 附加到目标View，若已附加到其他View则先移除
+     *
+     * @throws UnsupportedOperationException SDK18以下不支持ViewOverlay
+     */
+    public void attach(@NonNull View targetView) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            throw new UnsupportedOperationException("BadgeDrawable requires ViewOverlay (API 18+)");
+        }
+        if (mTargetView == targetView) {
+            return;
+        }
+        detach();
+        mTargetView = targetView;
+        targetView.addOnLayoutChangeListener(mOnLayoutChangeListener);
+        updateBounds(targetView.getWidth(), targetView.getHeight());
+        targetView.getOverlay().add(this);
+    }
+
+    /**
+     * 从目标View移除
+     */
+    public void detach() {
+        if (mTargetView != null) {
+            mTargetView.removeOnLayoutChangeListener(mOnLayoutChangeListener);
+            mTargetView.getOverlay().remove(this);
+            mTargetView = null;
+        }
+    }
+
+    /**
+     * 返回目标View
+     */
+    public View getTargetView() {
+        return mTargetView;
+    }
+
+    /**
+     * 根据目标View尺寸更新Drawable边界及角标位置
+     */
+    private void updateBounds(int width, int height) {
+        mBadge.setHostSize(width, height);
+        setBounds(0, 0, width, height);
+        invalidateSelf();
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        canvas.save();
+        canvas.translate(getBounds().left, getBounds().top);
+        mBadge.drawBadge(canvas);
+        canvas.restore();
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        mBadge.setBadgeAlpha(alpha);
+    }
+
+    @Override
+    public int getAlpha() {
+        return mBadge.getBadgeAlpha();
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+}
@@ -0,0 +1,135 @@
+package cn.simonlee.widget.badgeview;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewParent;
+
+import androidx.annotation.IdRes;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 在RecyclerView中为所有可见条目绘制角标，无需在条目中添加BadgeView或实现IBadge
+ * <p>
+ * 用法：
+ * 1.创建BadgeItemDecoration，传入{@link BadgeProvider}，按position提供角标数据；
+ * 2.通过{@link #getBadge()}设置角标样式（对齐方式、偏移量、内边距、小圆点半径等），与{@link Badge}一致；
+ * 3.调用RecyclerView的addItemDecoration添加，数据变化时调用RecyclerView的invalidateItemDecorations或invalidate。
+ * <p>
+ * 所有条目共享同一个{@link Badge}，即共享同一个画笔和背景，在一次onDrawOver中完成绘制。
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class BadgeItemDecoration extends RecyclerView.ItemDecoration {
+
+    /**
+     * 角标数据提供者
+     */
+    public interface BadgeProvider {
+
+        /**
+         * 为指定条目设置角标数据，通过{@link Badge#setBadgeText(String)}或{@link Badge#setBadgeCount(int, int)}设置
+         *
+         * @param position 条目在Adapter中的位置
+         * @param badge    共享的角标，不要持有引用
+         * @return 是否绘制角标
+         */
+        boolean bindBadge(int position, Badge badge);
+
+    }
+
+    /**
+     * 共享角标
+     */
+    private final Badge mBadge;
+
+    /**
+     * 角标数据提供者
+     */
+    private final BadgeProvider mBadgeProvider;
+
+    /**
+     * 角标依附的条目子View的ID，为{@link View#NO_ID}时依附于条目本身
+     */
+    private int mTargetViewId = View.NO_ID;
+
+    public BadgeItemDecoration(Context context, BadgeProvider badgeProvider) {
+        this(context, null, badgeProvider);
+    }
+
+    /**
+     * @param attributeSet 角标自定义属性，与{@link Badge}一致
+     */
+    public BadgeItemDecoration(Context context, AttributeSet attributeSet, BadgeProvider badgeProvider) {
+        this.mBadge = new Badge(context, attributeSet);
+        this.mBadgeProvider = badgeProvider;
+    }
+
+    /**
+     * 返回共享角标，用于设置角标样式
+     */
+    public Badge getBadge() {
+        return mBadge;
+    }
+
+    /**
+     * 设置角标依附的条目子View的ID，未找到时依附于条目本身
+     */
+    public void setTargetViewId(@IdRes int targetViewId) {
+        this.mTargetViewId = targetViewId;
+    }
+
+    /**
+     * 返回角标依附的条目子View的ID
+     */
+    public int getTargetViewId() {
+        return mTargetViewId;
+    }
+
+    @Override
+    public void onDrawOver(@NonNull Canvas canvas, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        for (int i = 0, childCount = parent.getChildCount(); i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position == RecyclerView.NO_POSITION) {
+                continue;
+            }
+            //查找角标依附的View
+            View target = child;
+            if (mTargetViewId != View.NO_ID) {
+                View view = child.findViewById(mTargetViewId);
+                if (view != null && view.getVisibility() == View.VISIBLE) {
+                    target = view;
+                }
+            }
+            //先指定宿主尺寸，再绑定数据，避免重复计算角标边界
+            mBadge.setHostSize(target.getWidth(), target.getHeight());
+            if (!mBadgeProvider.bindBadge(position, mBadge) || !mBadge.isBadgeVisible()) {
+                continue;
+            }
+            //计算依附View在RecyclerView中的坐标
+            float left = child.getLeft() + child.getTranslationX();
+            float top = child.getTop() + child.getTranslationY();
+            for (View view = target; view != child; ) {
+                left += view.getLeft() + view.getTranslationX();
+                top += view.getTop() + view.getTranslationY();
+                ViewParent viewParent = view.getParent();
+                if (!(viewParent instanceof View)) {
+                    break;
+                }
+                view = (View) viewParent;
+            }
+            canvas.save();
+            canvas.translate(left, top);
+            mBadge.drawBadge(canvas);
+            canvas.restore();
+        }
+    }
+
+}
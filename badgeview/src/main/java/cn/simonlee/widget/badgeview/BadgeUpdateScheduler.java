@@ -0,0 +1,130 @@
+package cn.simonlee.widget.badgeview;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+import androidx.annotation.MainThread;
+
+/**
+ * 角标刷新调度器
+ * <p>
+ * 收集同一帧内的角标变化，在下一帧统一刷新：
+ * 角标尺寸变化且目标View尺寸依赖角标时才requestLayout，否则仅重绘角标区域。
+ * 帧回调在绘制之前执行，因此合并刷新不会延迟显示。
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+@MainThread
+public final class BadgeUpdateScheduler {
+
+    private static BadgeUpdateScheduler sInstance;
+
+    /**
+     * 等待刷新的角标
+     */
+    private ArrayList<Badge> mPendingBadges = new ArrayList<>();
+
+    /**
+     * 正在刷新的角标，与{@link #mPendingBadges}交替使用，允许在刷新过程中提交新的变化
+     */
+    private ArrayList<Badge> mApplyingBadges = new ArrayList<>();
+
+    /**
+     * 是否已安排帧回调
+     */
+    private boolean isScheduled;
+
+    /**
+     * 帧回调，API16以下使用Handler代替
+     */
+    private final Object mFrameCallback;
+
+    private final Handler mHandler;
+
+    private final Runnable mFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    private BadgeUpdateScheduler() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    flush();
+                }
+            };
+            mHandler = null;
+        } else {
+            mFrameCallback = null;
+            mHandler = new Handler(Looper.getMainLooper());
+        }
+    }
+
+    public static BadgeUpdateScheduler getInstance() {
+        if (sInstance == null) {
+            sInstance = new BadgeUpdateScheduler();
+        }
+        return sInstance;
+    }
+
+    /**
+     * 提交角标变化，同一角标在一帧内多次提交只刷新一次
+     */
+    void schedule(Badge badge) {
+        if (badge.isUpdatePending) {
+            return;
+        }
+        badge.isUpdatePending = true;
+        mPendingBadges.add(badge);
+        if (!isScheduled) {
+            isScheduled = true;
+            if (mFrameCallback != null) {
+                Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) mFrameCallback);
+            } else {
+                mHandler.post(mFrameRunnable);
+            }
+        }
+    }
+
+    /**
+     * 立即刷新所有等待中的角标
+     */
+    public void flush() {
+        if (isScheduled) {
+            isScheduled = false;
+            if (mFrameCallback != null) {
+                Choreographer.getInstance().removeFrameCallback((Choreographer.FrameCallback) mFrameCallback);
+            } else {
+                mHandler.removeCallbacks(mFrameRunnable);
+            }
+        }
+        ArrayList<Badge> badges = mPendingBadges;
+        mPendingBadges = mApplyingBadges;
+        mApplyingBadges = badges;
+        for (int i = 0, size = badges.size(); i < size; i++) {
+            Badge badge = badges.get(i);
+            badge.isUpdatePending = false;
+            badge.applyUpdate();
+        }
+        badges.clear();
+    }
+
+    /**
+     * 返回等待刷新的角标数量
+     */
+    public int getPendingCount() {
+        return mPendingBadges.size();
+    }
+
+}
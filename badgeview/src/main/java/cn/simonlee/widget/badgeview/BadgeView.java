@@ -3,6 +3,7 @@ package cn.simonlee.widget.badgeview;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.graphics.Canvas;
+import android.graphics.Rect;
 import android.os.Build;
 import android.util.AttributeSet;
 import android.view.View;
@@ -23,6 +24,11 @@ public class BadgeView extends View implements IBadge {
     private int mLayoutWidth, mLayoutHeight;
     private boolean isExactlyDimension = true;
 
+    /**
+     * 上次测量时的角标宽高，用于判断角标尺寸变化后是否需要重新布局
+     */
+    private int mMeasuredBadgeWidth, mMeasuredBadgeHeight;
+
     public BadgeView(Context context) {
         super(context);
         mBadge = new Badge(this, null);
@@ -70,6 +76,8 @@ public class BadgeView extends View implements IBadge {
         int heightSize = MeasureSpec.getSize(heightMeasureSpec);
 
         isExactlyDimension = widthMode == MeasureSpec.EXACTLY && heightMode == MeasureSpec.EXACTLY;
+        mMeasuredBadgeWidth = mBadge.getBadgeWidth();
+        mMeasuredBadgeHeight = mBadge.getBadgeHeight();
 
         //if (mLayoutWidth == ViewGroup.LayoutParams.WRAP_CONTENT)
         if (widthMode == MeasureSpec.UNSPECIFIED) {
@@ -89,10 +97,22 @@ public class BadgeView extends View implements IBadge {
     }
 
     public void refreshBadge() {
-        if (mLayoutWidth == ViewGroup.LayoutParams.WRAP_CONTENT || mLayoutHeight == ViewGroup.LayoutParams.WRAP_CONTENT || !isExactlyDimension) {
+        refreshBadge(null);
+    }
+
+    /**
+     * 刷新角标，仅在尺寸依赖角标且角标尺寸变化时重新布局，否则只重绘角标区域
+     *
+     * @param dirty 需要重绘的区域，为null时重绘整个View
+     */
+    void refreshBadge(Rect dirty) {
+        if ((mLayoutWidth == ViewGroup.LayoutParams.WRAP_CONTENT || mLayoutHeight == ViewGroup.LayoutParams.WRAP_CONTENT || !isExactlyDimension)
+                && (mBadge.getBadgeWidth() != mMeasuredBadgeWidth || mBadge.getBadgeHeight() != mMeasuredBadgeHeight)) {
             super.requestLayout();
-        } else {
+        } else if (dirty == null || dirty.isEmpty()) {
             super.invalidate();
+        } else {
+            super.invalidate(dirty);
         }
     }
 
@@ -134,6 +134,8 @@ public abstract class BaseActivity extends AppCompatActivity implements BaseDial
             WaterMarkContentFrameLayout waterMarkContentFrameLayout = new WaterMarkContentFrameLayout(this, attrs);
             //获取水印
             mWaterMark = waterMarkContentFrameLayout.getWaterMark();
+            //各页面水印配置通常相同，使用进程级共享渲染缓存，页面切换时直接复用
+            mWaterMark.setRenderCacheEnabled(true);
             //替换ContentFrameLayout
             return waterMarkContentFrameLayout;
         }
@@ -119,6 +119,8 @@ public class DecelerateAnimator extends ValueAnimator {
         this.mDecelerateEvaluator = new DecelerateEvaluator();
         this.mPhysicalCoeff = context.getResources().getDisplayMetrics().density
                 * SensorManager.GRAVITY_EARTH * 5291.328f;// = 160.0f * 39.37f * 0.84f
+        //开始动画前也可使用速度、位移、时间的换算
+        this.mFlingFriction = ViewConfiguration.getScrollFriction() * mFlingFrictionRatio;
         setInterpolator(new LinearInterpolator());
     }
 
@@ -357,6 +359,21 @@ public class DecelerateAnimator extends ValueAnimator {
         return distance;
     }
 
+    /**
+     * 计算减速运动经过一段时间后的剩余速度
+     *
+     * @param velocity    初速度
+     * @param elapsedTime 已经过的时间
+     * @return 剩余速度，运动已结束时返回0
+     */
+    public float getResidualVelocity(float velocity, long elapsedTime) {
+        final long surplusDuration = getDurationByVelocity(velocity) - elapsedTime;
+        if (surplusDuration <= 0) {
+            return 0;
+        }
+        return getVelocityByDistance(getDistanceByDuration(surplusDuration) * Math.signum(velocity));
+    }
+
     /**
      * 根据位移计算初速度
      *
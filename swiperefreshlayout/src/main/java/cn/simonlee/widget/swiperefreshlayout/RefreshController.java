@@ -0,0 +1,294 @@
+package cn.simonlee.widget.swiperefreshlayout;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+
+/**
+ * 刷新控制器，统一管理刷新时的加载任务
+ * <p>
+ * 1.进入刷新状态时自动执行加载任务，加载结束后自动通知刷新完成或失败；
+ * <p>
+ * 2.同方向的加载任务仍在进行时，再次进入刷新状态不会重复执行，而是等待该任务结束；
+ * <p>
+ * 3.另一方向开始刷新、加载超时、控件从窗口移除时，取消进行中的加载任务，已取消任务的结果将被忽略，
+ * 超时时会通知刷新失败，移除时刷新布局直接复位到关闭状态。
+ * <p>
+ * 使用方法：{@link SwipeRefreshLayout#setRefreshController(RefreshController)}
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class RefreshController {
+
+    /**
+     * 默认超时时间，单位毫秒
+     */
+    public static final long DEFAULT_TIMEOUT = 15000;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * 加载任务
+     */
+    private final LoadTask mLoadTask;
+
+    /**
+     * 超时时间，不大于0表示不超时
+     */
+    private long mTimeoutMillis = DEFAULT_TIMEOUT;
+
+    /**
+     * 绑定的刷新布局
+     */
+    private SwipeRefreshLayout mSwipeRefreshLayout;
+
+    /**
+     * 进行中的加载请求
+     */
+    private LoadRequest mCurRequest;
+
+    /**
+     * 超时处理
+     */
+    private final Runnable mTimeoutRunnable = new Runnable() {
+        @Override
+        public void run() {
+            abort();
+        }
+    };
+
+    public RefreshController(LoadTask loadTask) {
+        if (loadTask == null) {
+            throw new IllegalArgumentException("loadTask can not be null");
+        }
+        this.mLoadTask = loadTask;
+    }
+
+    /**
+     * 获取超时时间，单位毫秒
+     */
+    public long getTimeout() {
+        return mTimeoutMillis;
+    }
+
+    /**
+     * 设置超时时间，单位毫秒，不大于0表示不超时
+     * <p>
+     * 超时后取消加载任务，并通知刷新失败
+     */
+    public void setTimeout(long timeoutMillis) {
+        this.mTimeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 判断是否有进行中的加载任务
+     */
+    public boolean isLoading() {
+        return mCurRequest != null;
+    }
+
+    /**
+     * 取消进行中的加载任务，不改变刷新状态
+     */
+    public void cancel() {
+        if (mCurRequest != null) {
+            LoadRequest request = mCurRequest;
+            mCurRequest = null;
+            mHandler.removeCallbacks(mTimeoutRunnable);
+            request.dispatchCancel();
+        }
+    }
+
+    /**
+     * 取消进行中的加载任务，并通知刷新失败，用于加载超时
+     */
+    void abort() {
+        if (mCurRequest != null) {
+            final boolean isHeader = mCurRequest.isHeader;
+            cancel();
+            notifyRefreshFinished(isHeader, false);
+        }
+    }
+
+    /**
+     * 绑定刷新布局，由{@link SwipeRefreshLayout#setRefreshController(RefreshController)}调用
+     */
+    void attach(SwipeRefreshLayout swipeRefreshLayout) {
+        if (mSwipeRefreshLayout != swipeRefreshLayout) {
+            cancel();
+            mSwipeRefreshLayout = swipeRefreshLayout;
+        }
+    }
+
+    /**
+     * 解除绑定，并取消进行中的加载任务
+     */
+    void detach() {
+        cancel();
+        mSwipeRefreshLayout = null;
+    }
+
+    /**
+     * 刷新状态或刷新控件改变，由SwipeRefreshLayout调用
+     */
+    void onRefreshStateChanged(SwipeRefreshLayout parent, View refreshView, int state) {
+        if (state != SwipeRefreshLayout.STATE_REFRESHING || parent != mSwipeRefreshLayout) {
+            return;
+        }
+        final boolean isHeader = parent.isHeaderRefreshView(refreshView);
+        if (mCurRequest != null) {
+            if (mCurRequest.isHeader == isHeader) {
+                //同方向加载仍在进行，等待其结束，不重复加载
+                return;
+            }
+            //另一方向的加载已过时
+            cancel();
+        }
+        mCurRequest = new LoadRequest(this, isHeader);
+        if (mTimeoutMillis > 0) {
+            mHandler.postDelayed(mTimeoutRunnable, mTimeoutMillis);
+        }
+        mLoadTask.onLoad(parent, mCurRequest);
+    }
+
+    /**
+     * 结束加载请求，可在任意线程调用
+     */
+    private void postFinishRequest(final LoadRequest request, final boolean success) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            finishRequest(request, success);
+        } else {
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    finishRequest(request, success);
+                }
+            });
+        }
+    }
+
+    /**
+     * 结束加载请求，已取消或已过时的请求将被忽略
+     */
+    private void finishRequest(LoadRequest request, boolean success) {
+        if (request != mCurRequest) {
+            return;
+        }
+        mCurRequest = null;
+        mHandler.removeCallbacks(mTimeoutRunnable);
+        notifyRefreshFinished(request.isHeader, success);
+    }
+
+    /**
+     * 通知刷新布局刷新完成或失败，仅在刷新控件与请求方向一致时通知
+     */
+    private void notifyRefreshFinished(boolean isHeader, boolean success) {
+        if (mSwipeRefreshLayout == null) {
+            return;
+        }
+        final View curRefreshView = mSwipeRefreshLayout.getCurRefreshView();
+        if (isHeader ? !mSwipeRefreshLayout.isHeaderRefreshView(curRefreshView) : !mSwipeRefreshLayout.isFooterRefreshView(curRefreshView)) {
+            return;
+        }
+        if (success) {
+            mSwipeRefreshLayout.notifyRefreshComplete();
+        } else {
+            mSwipeRefreshLayout.notifyRefreshFailed();
+        }
+    }
+
+    /**
+     * 加载请求，加载结束后需调用{@link #complete()}或{@link #fail()}
+     */
+    public static final class LoadRequest {
+
+        private final RefreshController mController;
+
+        private final boolean isHeader;
+
+        private volatile boolean isCanceled;
+
+        private OnCancelListener mOnCancelListener;
+
+        private LoadRequest(RefreshController controller, boolean isHeader) {
+            this.mController = controller;
+            this.isHeader = isHeader;
+        }
+
+        /**
+         * 是否为顶部刷新，否则为底部刷新
+         */
+        public boolean isHeader() {
+            return isHeader;
+        }
+
+        /**
+         * 是否已取消，已取消的请求无需继续加载
+         */
+        public boolean isCanceled() {
+            return isCanceled;
+        }
+
+        /**
+         * 设置取消回调，用于中断网络请求等耗时操作，在主线程回调
+         */
+        public void setOnCancelListener(OnCancelListener listener) {
+            this.mOnCancelListener = listener;
+            if (isCanceled && listener != null) {
+                listener.onCancel(this);
+            }
+        }
+
+        /**
+         * 加载成功，可在任意线程调用
+         */
+        public void complete() {
+            mController.postFinishRequest(this, true);
+        }
+
+        /**
+         * 加载失败，可在任意线程调用
+         */
+        public void fail() {
+            mController.postFinishRequest(this, false);
+        }
+
+        private void dispatchCancel() {
+            if (isCanceled) {
+                return;
+            }
+            isCanceled = true;
+            if (mOnCancelListener != null) {
+                mOnCancelListener.onCancel(this);
+            }
+        }
+
+    }
+
+    /**
+     * 加载任务
+     */
+    public interface LoadTask {
+
+        /**
+         * 开始加载，在主线程回调
+         *
+         * @param parent  刷新布局
+         * @param request 加载请求，加载结束后调用{@link LoadRequest#complete()}或{@link LoadRequest#fail()}
+         */
+        void onLoad(SwipeRefreshLayout parent, LoadRequest request);
+    }
+
+    /**
+     * 加载请求取消回调
+     */
+    public interface OnCancelListener {
+
+        void onCancel(LoadRequest request);
+    }
+
+}
@@ -0,0 +1,193 @@
+package cn.simonlee.widget.swiperefreshlayout;
+
+import android.content.Context;
+import android.graphics.drawable.Animatable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.animation.Animation;
+import android.view.animation.LinearInterpolator;
+import android.view.animation.RotateAnimation;
+import android.widget.ImageView;
+
+import androidx.core.content.ContextCompat;
+
+/**
+ * 内置刷新指示器，可直接作为顶部或底部刷新控件：
+ * <pre>
+ * app:swiperefresh_header_layout="@layout/swiperefresh_indicator"
+ * </pre>
+ * 由{@link SwipeRefreshLayout}的状态改变驱动，无需设置任何监听：
+ * <p>
+ * 1.拉开过程中仅改变View的rotation、alpha属性，不触发重绘；
+ * <p>
+ * 2.刷新中的旋转动画使用AnimatedVectorDrawable，API25及以上由RenderThread执行，主线程繁忙时也不会卡顿；
+ * API21以下使用补间动画代替。
+ * <p>
+ * 颜色可通过android:tint或{@link #setColorFilter(int)}修改。
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class RefreshIndicatorView extends ImageView implements SwipeRefreshLayout.OnRefreshProgressListener {
+
+    /**
+     * 拉开距离不足时的透明度
+     */
+    private static final float ALPHA_OPEN = 0.4F;
+
+    /**
+     * 静止状态的指示器
+     */
+    private Drawable mIndicatorDrawable;
+
+    /**
+     * 旋转动画指示器，API21以下为null
+     */
+    private Drawable mSpinningDrawable;
+
+    /**
+     * API21以下的旋转动画
+     */
+    private Animation mFallbackAnimation;
+
+    /**
+     * 当前刷新状态
+     */
+    private int mRefreshState = SwipeRefreshLayout.STATE_CLOSE;
+
+    /**
+     * 是否正在旋转
+     */
+    private boolean isSpinning;
+
+    public RefreshIndicatorView(Context context) {
+        super(context);
+        initRefreshIndicatorView(context);
+    }
+
+    public RefreshIndicatorView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        initRefreshIndicatorView(context);
+    }
+
+    public RefreshIndicatorView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        initRefreshIndicatorView(context);
+    }
+
+    private void initRefreshIndicatorView(Context context) {
+        setScaleType(ScaleType.CENTER);
+        mIndicatorDrawable = ContextCompat.getDrawable(context, R.drawable.swiperefresh_indicator);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            mSpinningDrawable = ContextCompat.getDrawable(context, R.drawable.swiperefresh_indicator_spinning);
+        }
+        setImageDrawable(mIndicatorDrawable);
+        setAlpha(ALPHA_OPEN);
+    }
+
+    @Override
+    public void onRefreshStateChanged(SwipeRefreshLayout parent, View refreshView, int state) {
+        mRefreshState = state;
+        setVisibility(state == SwipeRefreshLayout.STATE_UNABLE ? INVISIBLE : VISIBLE);
+        switch (state) {
+            case SwipeRefreshLayout.STATE_CLOSE: {
+                stopSpinning();
+                setRotation(0F);
+                setAlpha(ALPHA_OPEN);
+                break;
+            }
+            case SwipeRefreshLayout.STATE_OPEN: {
+                setAlpha(ALPHA_OPEN);
+                break;
+            }
+            case SwipeRefreshLayout.STATE_READY: {
+                setAlpha(1F);
+                break;
+            }
+            case SwipeRefreshLayout.STATE_REFRESHING: {
+                setAlpha(1F);
+                startSpinning();
+                break;
+            }
+            case SwipeRefreshLayout.STATE_REFRESH_COMPLETE: {
+                stopSpinning();
+                break;
+            }
+            default: {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void onRefreshProgress(SwipeRefreshLayout parent, View refreshView, float progress) {
+        if (mRefreshState == SwipeRefreshLayout.STATE_OPEN || mRefreshState == SwipeRefreshLayout.STATE_READY) {
+            //仅改变RenderNode属性，不触发重绘
+            setRotation(360F * progress);
+        }
+    }
+
+    /**
+     * 开始旋转
+     */
+    private void startSpinning() {
+        if (isSpinning) {
+            return;
+        }
+        isSpinning = true;
+        if (mSpinningDrawable != null) {
+            setImageDrawable(mSpinningDrawable);
+            ((Animatable) mSpinningDrawable).start();
+        } else {
+            if (mFallbackAnimation == null) {
+                mFallbackAnimation = new RotateAnimation(0F, 360F, Animation.RELATIVE_TO_SELF, 0.5F, Animation.RELATIVE_TO_SELF, 0.5F);
+                mFallbackAnimation.setRepeatCount(Animation.INFINITE);
+                mFallbackAnimation.setDuration(1000);
+                mFallbackAnimation.setInterpolator(new LinearInterpolator());
+            }
+            startAnimation(mFallbackAnimation);
+        }
+    }
+
+    /**
+     * 停止旋转
+     */
+    private void stopSpinning() {
+        if (!isSpinning) {
+            return;
+        }
+        isSpinning = false;
+        if (mSpinningDrawable != null) {
+            ((Animatable) mSpinningDrawable).stop();
+            setImageDrawable(mIndicatorDrawable);
+        } else {
+            clearAnimation();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (isSpinning) {
+            //移除期间已停止，重新开始
+            isSpinning = false;
+            startSpinning();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        if (isSpinning) {
+            stopSpinning();
+            //保留旋转标志，重新添加到窗口后恢复
+            isSpinning = true;
+        }
+        super.onDetachedFromWindow();
+    }
+
+}
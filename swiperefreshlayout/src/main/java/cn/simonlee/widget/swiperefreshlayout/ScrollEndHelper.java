@@ -0,0 +1,130 @@
+package cn.simonlee.widget.swiperefreshlayout;
+
+import android.view.View;
+import android.widget.AbsListView;
+import android.widget.ScrollView;
+
+import androidx.core.view.ScrollingView;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 计算可滑动View距底部的剩余条目数及剩余距离，用于预加载判断
+ * <p>
+ * 支持RecyclerView、AbsListView、ScrollView及实现{@link ScrollingView}的View（如NestedScrollView），
+ * 其他View仅能判断是否已滑动到底部。
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+final class ScrollEndHelper {
+
+    /**
+     * 无法计算时的返回值
+     */
+    static final int UNKNOWN = Integer.MAX_VALUE;
+
+    /**
+     * RecyclerView为compileOnly依赖，运行时不一定存在
+     */
+    private static final boolean RECYCLER_VIEW_AVAILABLE = isClassAvailable("androidx.recyclerview.widget.RecyclerView");
+
+    private ScrollEndHelper() {
+    }
+
+    private static boolean isClassAvailable(String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (Throwable ignored) {
+            return false;
+        }
+    }
+
+    /**
+     * 返回最后一个可见条目之后的剩余条目数，不支持条目时返回{@link #UNKNOWN}
+     */
+    static int getRemainingItemCount(View view) {
+        if (view instanceof AbsListView) {
+            AbsListView listView = (AbsListView) view;
+            return Math.max(0, listView.getCount() - 1 - listView.getLastVisiblePosition());
+        }
+        if (RECYCLER_VIEW_AVAILABLE && view instanceof RecyclerView) {
+            RecyclerView recyclerView = (RecyclerView) view;
+            RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+            if (layoutManager == null) {
+                return UNKNOWN;
+            }
+            int lastPosition = RecyclerView.NO_POSITION;
+            for (int index = 0; index < recyclerView.getChildCount(); index++) {
+                lastPosition = Math.max(lastPosition, recyclerView.getChildAdapterPosition(recyclerView.getChildAt(index)));
+            }
+            return Math.max(0, layoutManager.getItemCount() - 1 - lastPosition);
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * 返回距底部的剩余距离，单位px，无法计算时根据能否继续上滑返回{@link #UNKNOWN}或0
+     */
+    static int getRemainingDistance(View view) {
+        if (view instanceof ScrollingView) {
+            ScrollingView scrollingView = (ScrollingView) view;
+            return Math.max(0, scrollingView.computeVerticalScrollRange() - scrollingView.computeVerticalScrollOffset()
+                    - scrollingView.computeVerticalScrollExtent());
+        }
+        if (view instanceof ScrollView) {
+            ScrollView scrollView = (ScrollView) view;
+            if (scrollView.getChildCount() > 0) {
+                View child = scrollView.getChildAt(0);
+                return Math.max(0, child.getBottom() + scrollView.getPaddingBottom() - scrollView.getScrollY() - scrollView.getHeight());
+            }
+        } else if (view instanceof AbsListView) {
+            AbsListView listView = (AbsListView) view;
+            final int childCount = listView.getChildCount();
+            if (childCount > 0 && listView.getLastVisiblePosition() >= listView.getCount() - 1) {
+                View lastChild = listView.getChildAt(childCount - 1);
+                return Math.max(0, lastChild.getBottom() - listView.getHeight() + listView.getPaddingBottom());
+            }
+        }
+        return view.canScrollVertically(1) ? UNKNOWN : 0;
+    }
+
+    /**
+     * 判断是否有可供预加载判断的内容：列表需至少有一个条目，其他View需内容超出自身可以滑动
+     * <p>
+     * 空列表的剩余条目数及剩余距离均为0，不排除时会在列表为空时反复触发预加载
+     */
+    static boolean hasContent(View view) {
+        if (view instanceof AbsListView) {
+            return ((AbsListView) view).getCount() > 0;
+        }
+        if (RECYCLER_VIEW_AVAILABLE && view instanceof RecyclerView) {
+            RecyclerView.LayoutManager layoutManager = ((RecyclerView) view).getLayoutManager();
+            return layoutManager != null && layoutManager.getItemCount() > 0;
+        }
+        return view.canScrollVertically(1) || view.canScrollVertically(-1);
+    }
+
+    /**
+     * 返回内容规模（条目数或内容高度），用于判断加载后内容是否增长
+     */
+    static int getContentExtent(View view) {
+        if (view instanceof AbsListView) {
+            return ((AbsListView) view).getCount();
+        }
+        if (RECYCLER_VIEW_AVAILABLE && view instanceof RecyclerView) {
+            RecyclerView.LayoutManager layoutManager = ((RecyclerView) view).getLayoutManager();
+            return layoutManager == null ? 0 : layoutManager.getItemCount();
+        }
+        if (view instanceof ScrollingView) {
+            return ((ScrollingView) view).computeVerticalScrollRange();
+        }
+        if (view instanceof ScrollView && ((ScrollView) view).getChildCount() > 0) {
+            return ((ScrollView) view).getChildAt(0).getHeight();
+        }
+        return view.getHeight();
+    }
+
+}
@@ -6,18 +6,26 @@ import android.animation.ValueAnimator;
 import android.app.Activity;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
 import android.widget.FrameLayout;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.core.view.NestedScrollingChild3;
+import androidx.core.view.NestedScrollingChildHelper;
+import androidx.core.view.NestedScrollingParent3;
+import androidx.core.view.NestedScrollingParentHelper;
+import androidx.core.view.ViewCompat;
 
 /**
  * 可兼容任意View的刷新布局
@@ -34,7 +42,27 @@ import androidx.annotation.LayoutRes;
  * @createdTime 2018-08-16
  */
 @SuppressWarnings({"FieldCanBeLocal", "ClickableViewAccessibility", "unused"})
-public class SwipeRefreshLayout extends FrameLayout {
+public class SwipeRefreshLayout extends FrameLayout implements NestedScrollingParent3, NestedScrollingChild3 {
+
+    /**
+     * 状态标志：顶部可用
+     */
+    private static final int FLAG_HEADER_ENABLED = 1;
+
+    /**
+     * 状态标志：底部可用
+     */
+    private static final int FLAG_FOOTER_ENABLED = 1 << 1;
+
+    /**
+     * 状态标志：顶部可刷新
+     */
+    private static final int FLAG_HEADER_REFRESHABLE = 1 << 2;
+
+    /**
+     * 状态标志：底部可刷新
+     */
+    private static final int FLAG_FOOTER_REFRESHABLE = 1 << 3;
 
     /**
      * 刷新状态：不可用
@@ -66,11 +94,33 @@ public class SwipeRefreshLayout extends FrameLayout {
      */
     public static final int STATE_REFRESH_COMPLETE = 4;
 
+    /**
+     * 偏移模式：通过scrollTo移动内容，刷新中会适配child的Padding值
+     */
+    public static final int OFFSET_MODE_SCROLL = 0;
+
+    /**
+     * 偏移模式：通过translationY移动内容及刷新控件，由RenderThread完成变换，拖动及动画过程中不会触发重新布局
+     * <p>
+     * 此模式下不会适配child的Padding值，刷新中child底部（或顶部）会有部分区域被移出可见范围
+     */
+    public static final int OFFSET_MODE_TRANSLATION = 1;
+
     /**
      * 当前刷新状态
      */
     private int mRefreshState;
 
+    /**
+     * 偏移模式 {@link #OFFSET_MODE_SCROLL}、{@link #OFFSET_MODE_TRANSLATION}
+     */
+    private int mOffsetMode;
+
+    /**
+     * 偏移模式为{@link #OFFSET_MODE_TRANSLATION}时的当前偏移量
+     */
+    private int mTranslationOffset;
+
     /**
      * 标志刷新状态是否改变
      */
@@ -91,11 +141,57 @@ public class SwipeRefreshLayout extends FrameLayout {
      */
     private View mFooterRefreshView;
 
+    /**
+     * 待加载的下拉刷新控件布局ID，首次拉开或请求刷新时才加载
+     */
+    private int mHeaderLayoutID = NO_ID;
+
+    /**
+     * 待加载的上滑刷新控件布局ID，首次拉开或请求刷新时才加载
+     */
+    private int mFooterLayoutID = NO_ID;
+
     /**
      * 刷新监听器
      */
     private OnRefreshListener mOnRefreshListener;
 
+    /**
+     * 刷新进度监听器
+     */
+    private OnRefreshProgressListener mOnRefreshProgressListener;
+
+    /**
+     * 刷新控制器
+     */
+    private RefreshController mRefreshController;
+
+    /**
+     * 最近一次回调的刷新进度
+     */
+    private float mRefreshProgress = -1;
+
+    /**
+     * 最近一次回调刷新进度时的刷新控件
+     */
+    private View mProgressRefreshView;
+
+    /**
+     * 是否已安排下一帧回调刷新进度
+     */
+    private boolean isRefreshProgressScheduled;
+
+    /**
+     * 刷新进度回调，每帧最多执行一次
+     */
+    private final Runnable mRefreshProgressRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isRefreshProgressScheduled = false;
+            dispatchRefreshProgress();
+        }
+    };
+
     /**
      * 此标志仅适用一种场景：在DOWN事件后，MOVE滑动前，多指触摸的处理
      * <p>
@@ -139,6 +235,16 @@ public class SwipeRefreshLayout extends FrameLayout {
      */
     private boolean isFooterRefreshable;
 
+    /**
+     * 可用及可刷新状态标志，由{@link #updateStateFlags()}在相关属性改变时计算
+     */
+    private int mStateFlags;
+
+    /**
+     * 内容控件，即除刷新控件外唯一的childView
+     */
+    private View mChildView;
+
     /**
      * 标志顶部刷新是否折叠
      */
@@ -164,6 +270,36 @@ public class SwipeRefreshLayout extends FrameLayout {
      */
     private int mTouchSlop;
 
+    /**
+     * 最小惯性滑动速度
+     */
+    private int mMinimumFlingVelocity;
+
+    /**
+     * 是否将child惯性滑动到边缘时的剩余速度转为拉开回弹
+     */
+    private boolean isFlingOverscrollEnabled = true;
+
+    /**
+     * child惯性滑动的初速度，由嵌套滑动回调获取，为0表示没有进行中的惯性滑动
+     */
+    private float mNestedFlingVelocity;
+
+    /**
+     * child惯性滑动的开始时间
+     */
+    private long mNestedFlingStartTime;
+
+    /**
+     * 惯性回弹的最大拉开距离，取刷新控件的测量高度，刚加载的刷新控件尚未布局，高度为0
+     */
+    private int mFlingMaxOffset;
+
+    /**
+     * 惯性回弹动画，child惯性滑动到边缘后拉开刷新控件并回弹
+     */
+    private DecelerateAnimator mFlingAnimator;
+
     /**
      * 触摸点的ID
      */
@@ -195,23 +331,128 @@ public class SwipeRefreshLayout extends FrameLayout {
     private boolean isTouchEventIntercepted;
 
     /**
-     * ACTION_DOWN事件中所有被触摸到的child集合
+     * 嵌套滑动辅助类
+     */
+    private final NestedScrollingParentHelper mNestedScrollingParentHelper = new NestedScrollingParentHelper(this);
+
+    /**
+     * 嵌套滑动辅助类，将child的嵌套滑动转发给外层的嵌套滑动父容器（如CoordinatorLayout、NestedScrollView）
+     */
+    private final NestedScrollingChildHelper mNestedScrollingChildHelper = new NestedScrollingChildHelper(this);
+
+    /**
+     * 转发嵌套滑动时，外层父容器的消费距离
+     */
+    private final int[] mParentScrollConsumed = new int[2];
+
+    /**
+     * 转发嵌套滑动时，本布局在窗口中的偏移量
+     */
+    private final int[] mParentOffsetInWindow = new int[2];
+
+    /**
+     * 当前手势中，外层父容器最近一次未能消费的垂直滑动距离
+     * <p>
+     * 存在外层父容器时，需等其消费不了同方向的滑动后才拉开刷新
+     */
+    private int mParentUnconsumedY;
+
+    /**
+     * 当前手势中发起嵌套滑动的child，由嵌套滑动协议确定，用于判断滑动能否被child消费
      */
-    private List<View> mTouchedChildren = new ArrayList<>();
+    private View mNestedScrollTarget;
 
     /**
-     * 当前触摸事件的消费者
+     * 嵌套滑动消费距离，兼容旧版回调时复用
+     */
+    private final int[] mNestedScrollConsumed = new int[2];
+
+    /**
+     * 不支持嵌套滑动时的备用方案：按下位置的可垂直滑动的View链，由外至内排列
+     * <p>
+     * 仅在需要判断时沿触摸路径查找，只在同一手势内复用。
+     * 中间的View可能不经过布局而滚动，改变按下位置对应的View，因此不跨手势缓存
      */
-    private View mCurConsumer;
+    private final List<View> mScrollableChain = new ArrayList<>();
 
     /**
-     * 所有child触摸事件监听
+     * 可滑动View链在当前手势中是否有效
      */
-    private OnTouchListener mChildOnTouchListener = new OnTouchListener() {
+    private boolean isScrollableChainValid;
+
+    /**
+     * ACTION_DOWN事件的坐标，相对本布局的内容坐标，用于查找可滑动View链
+     */
+    private float mChainTouchX, mChainTouchY;
+
+    /**
+     * 模拟多指触摸事件时复用的触摸点属性及坐标，按需扩容
+     */
+    private MotionEvent.PointerProperties[] mPointerProperties = new MotionEvent.PointerProperties[0];
+    private MotionEvent.PointerCoords[] mPointerCoords = new MotionEvent.PointerCoords[0];
+
+    /**
+     * 当前手势中下发的模拟事件数量，用于调试
+     */
+    private int mSyntheticEventCount;
+
+    /**
+     * 预加载失败后的初始退避时间，单位ms，连续失败时翻倍
+     */
+    private static final long PREFETCH_BACKOFF_BASE = 1000;
+
+    /**
+     * 预加载失败后的最大退避时间，单位ms
+     */
+    private static final long PREFETCH_BACKOFF_MAX = 32000;
+
+    /**
+     * 是否启用底部预加载
+     */
+    private boolean isPrefetchEnabled;
+
+    /**
+     * 预加载触发的剩余条目数，适用于RecyclerView、AbsListView
+     */
+    private int mPrefetchItemThreshold = 3;
+
+    /**
+     * 预加载触发的剩余距离，单位px
+     */
+    private int mPrefetchDistance;
+
+    /**
+     * 预加载监听的滑动View，为空时监听childView
+     */
+    private View mPrefetchTarget;
+
+    /**
+     * 标志当前刷新是否由预加载触发
+     */
+    private boolean isPrefetching;
+
+    /**
+     * 上次触发预加载时的内容规模，内容未增长时不重复触发
+     */
+    private int mPrefetchContentExtent = -1;
+
+    /**
+     * 预加载连续失败次数
+     */
+    private int mPrefetchFailureCount;
+
+    /**
+     * 预加载失败后允许重试的时间点
+     */
+    private long mPrefetchRetryTime;
+
+    /**
+     * 滑动监听，用于判断是否接近底部
+     */
+    private final ViewTreeObserver.OnScrollChangedListener mPrefetchScrollListener = new ViewTreeObserver.OnScrollChangedListener() {
         @Override
-        public boolean onTouch(View view, MotionEvent event) {
-            mCurConsumer = view;
-            return false;
+        public void onScrollChanged() {
+            checkPrefetch();
         }
     };
 
@@ -260,6 +501,9 @@ public class SwipeRefreshLayout extends FrameLayout {
         //底部是否折叠刷新
         this.isFooterRefreshFolded = typedArray.getBoolean(R.styleable.SwipeRefreshLayout_swiperefresh_footer_folded, false);
 
+        //偏移模式
+        this.mOffsetMode = typedArray.getInt(R.styleable.SwipeRefreshLayout_swiperefresh_offsetMode, OFFSET_MODE_SCROLL);
+
         //顶部刷新控件
         int headerLayoutID = typedArray.getResourceId(R.styleable.SwipeRefreshLayout_swiperefresh_header_layout, NO_ID);
         setHeaderRefreshView(headerLayoutID);
@@ -269,13 +513,20 @@ public class SwipeRefreshLayout extends FrameLayout {
         setFooterRefreshView(footerLayoutID);
 
         typedArray.recycle();
+        updateStateFlags();
         //判断滑动事件的最小距离
         this.mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+        //惯性滑动的最小速度
+        this.mMinimumFlingVelocity = ViewConfiguration.get(context).getScaledMinimumFlingVelocity();
+        //支持作为嵌套滑动的child
+        setNestedScrollingEnabled(true);
     }
 
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         super.onLayout(changed, left, top, right, bottom);
+        //子控件可能发生变化，可滑动View链失效
+        isScrollableChainValid = false;
         if (mHeaderRefreshView != null) {
             //设置偏移量，使顶部刷新控件隐藏到顶部
             mHeaderRefreshView.offsetTopAndBottom(-mHeaderRefreshView.getBottom());
@@ -289,7 +540,7 @@ public class SwipeRefreshLayout extends FrameLayout {
     @Override
     public void addView(View child, int index, ViewGroup.LayoutParams params) {
         //除刷新控件外，只能有一个childView
-        if (getChildView() != null) {
+        if (mChildView != null) {
             throw new IllegalStateException("SwipeRefreshLayout can host only one direct child");
         }
         super.addView(child, index, params);
@@ -298,7 +549,7 @@ public class SwipeRefreshLayout extends FrameLayout {
     @Override
     protected boolean addViewInLayout(View child, int index, ViewGroup.LayoutParams params, boolean preventRequestLayout) {
         //除刷新控件外，只能有一个childView
-        if (getChildView() != null) {
+        if (mChildView != null) {
             throw new IllegalStateException("SwipeRefreshLayout can host only one direct child");
         }
         return super.addViewInLayout(child, index, params, preventRequestLayout);
@@ -306,10 +557,10 @@ public class SwipeRefreshLayout extends FrameLayout {
 
     @Override
     public boolean dispatchTouchEvent(MotionEvent event) {
-        if (getChildView() == null) {
+        if (mChildView == null) {
             return super.dispatchTouchEvent(event);
         }
-        final int scrollY = getScrollY();
+        final int scrollY = getPullOffset();
         //是否在动画中
         final boolean isBeingRegressed = mRegressAnimator != null && mRegressAnimator.isStarted();
         //是否为锁定状态
@@ -319,14 +570,21 @@ public class SwipeRefreshLayout extends FrameLayout {
             case MotionEvent.ACTION_DOWN: {
                 isBeingMoved = false;
                 isTouchEventIntercepted = false;
+                mSyntheticEventCount = 0;
                 //记录触摸点
                 recordTouchPointer(event, event.getActionIndex());
-                //当前事件消费者置空
-                mCurConsumer = null;
-                //清空集合
-                mTouchedChildren.clear();
-                //遍历所有被触摸到的child
-                listTouchedChildren(getChildView(), mTouchDownX + getScrollX(), mTouchDownY + scrollY);
+                //嵌套滑动目标置空，由child发起嵌套滑动时确定
+                mNestedScrollTarget = null;
+                mParentUnconsumedY = 0;
+                //记录按下位置，需要时再查找可滑动View链
+                mChainTouchX = mTouchDownX + getScrollX();
+                mChainTouchY = mTouchDownY + scrollY;
+                isScrollableChainValid = false;
+                //按下时结束惯性滑动及惯性回弹，已拉开时由下方逻辑接管
+                mNestedFlingVelocity = 0;
+                if (mFlingAnimator != null && mFlingAnimator.isStarted()) {
+                    mFlingAnimator.cancel();
+                }
                 if (!isLockedState) {//非锁定状态
                     if (isBeingRegressed) {
                         mRegressAnimator.cancel();//取消动画
@@ -370,6 +628,11 @@ public class SwipeRefreshLayout extends FrameLayout {
                                     //四舍五入
                                     int scrollTo = (int) (offsetY + (offsetY < 0 ? -0.5F : 0.5F));
                                     if (canScrollRefresh(scrollTo)) {//判断是否可以拉开刷新
+                                        if (!isTouchEventIntercepted) {
+                                            //开始拉开，向child下发CANCEL事件以取消其按压及滑动状态，拉回时再模拟Touch事件交还
+                                            isTouchEventIntercepted = true;
+                                            cancelChildTouchEvent(event);
+                                        }
                                         scrollToRefresh(scrollTo, false, false);//刷新
                                         //记录当前触摸事件Y坐标
                                         mPrevY = curY;
@@ -386,8 +649,6 @@ public class SwipeRefreshLayout extends FrameLayout {
                                 }
                             } else if (Math.abs(mTouchDownY - curY) > mTouchSlop) {//距离足够触发滑动
                                 isBeingMoved = true;
-                                //复制MOVE事件下发，产生滑动事件消费者
-                                super.dispatchTouchEvent(MotionEvent.obtain(event));
                             }
                         }
                         //记录当前触摸事件Y坐标
@@ -430,74 +691,110 @@ public class SwipeRefreshLayout extends FrameLayout {
 
     /**
      * 模拟Touch事件下发
+     * <p>
+     * 单指触摸时直接修改原事件下发；多指触摸时复用触摸点数组，从事件池获取事件，下发后立即回收
      */
     private void imitateTouchEvent(MotionEvent event, int sign) {
-        //下发一个模拟DOWN事件使Child获取焦点，再下发两个模拟MOVE事件使Child处于滑动状态
-        event.setAction(MotionEvent.ACTION_DOWN);
-        super.dispatchTouchEvent(MotionEvent.obtain(event));
-        final float offset = (mTouchSlop + 1) * sign;
-        event.offsetLocation(0, offset);
-        event.setAction(MotionEvent.ACTION_MOVE);
-        super.dispatchTouchEvent(MotionEvent.obtain(event));
-        event.setAction(MotionEvent.ACTION_MOVE);
-        event.offsetLocation(0, -offset);
-        super.dispatchTouchEvent(MotionEvent.obtain(event));
-
         final int pointerCount = event.getPointerCount();
-        //多指触摸，连续下发多个模拟ACTION_POINTER_DOWN事件
-        if (pointerCount > 1) {
-            final long downTime = event.getDownTime();
-            final long eventTime = event.getEventTime();
-            final int metaState = event.getMetaState();
-            final int buttonState = event.getButtonState();
-            final float xPrecision = event.getXPrecision();
-            final float yPrecision = event.getYPrecision();
-            final int deviceId = event.getDeviceId();
-            final int edgeFlags = event.getEdgeFlags();
-            final int source = event.getSource();
-            final int flags = event.getFlags();
-            MotionEvent.PointerCoords[] pointerCoords = new MotionEvent.PointerCoords[pointerCount];
-            MotionEvent.PointerProperties[] pointerProperties = new MotionEvent.PointerProperties[pointerCount];
+        //下发模拟DOWN事件使Child获取焦点
+        if (pointerCount == 1) {
+            event.setAction(MotionEvent.ACTION_DOWN);
+            dispatchSyntheticEvent(event);
+        } else {
+            //多指触摸，先下发只含第一个触摸点的DOWN事件，再依次下发ACTION_POINTER_DOWN事件
+            ensurePointerCapacity(pointerCount);
             for (int index = 0; index < pointerCount; index++) {
-                MotionEvent.PointerCoords outPointerCoords = new MotionEvent.PointerCoords();
-                event.getPointerCoords(index, outPointerCoords);
-                pointerCoords[index] = outPointerCoords;
-                MotionEvent.PointerProperties outPointerProperties = new MotionEvent.PointerProperties();
-                event.getPointerProperties(index, outPointerProperties);
-                pointerProperties[index] = outPointerProperties;
+                event.getPointerProperties(index, mPointerProperties[index]);
+                event.getPointerCoords(index, mPointerCoords[index]);
             }
-            for (int index = 1; index < pointerCount; index++) {
-                int action = MotionEvent.ACTION_POINTER_DOWN + (pointerProperties[index].id << MotionEvent.ACTION_POINTER_INDEX_SHIFT);
-                MotionEvent obtainEvent = MotionEvent.obtain(downTime, eventTime, action, index + 1, pointerProperties,
-                        pointerCoords, metaState, buttonState, xPrecision, yPrecision, deviceId, edgeFlags, source, flags);
-                super.dispatchTouchEvent(obtainEvent);
+            for (int index = 0; index < pointerCount; index++) {
+                final int action = index == 0 ? MotionEvent.ACTION_DOWN
+                        : MotionEvent.ACTION_POINTER_DOWN | (index << MotionEvent.ACTION_POINTER_INDEX_SHIFT);
+                MotionEvent obtainEvent = MotionEvent.obtain(event.getDownTime(), event.getEventTime(), action, index + 1,
+                        mPointerProperties, mPointerCoords, event.getMetaState(), event.getButtonState(), event.getXPrecision(),
+                        event.getYPrecision(), event.getDeviceId(), event.getEdgeFlags(), event.getSource(), event.getFlags());
+                dispatchSyntheticEvent(obtainEvent);
+                obtainEvent.recycle();
             }
         }
+        //再下发两个模拟MOVE事件使Child处于滑动状态
+        final float offset = (mTouchSlop + 1) * sign;
+        event.setAction(MotionEvent.ACTION_MOVE);
+        event.offsetLocation(0, offset);
+        dispatchSyntheticEvent(event);
+        event.offsetLocation(0, -offset);
+        dispatchSyntheticEvent(event);
     }
 
     /**
-     * 遍历所有被触摸到的child
-     *
-     * @param view   目标view
-     * @param localX 触摸X坐标，相对目标view的父容器左顶点
-     * @param localY 触摸Y坐标，相对目标view的父容器左顶点
+     * 确保触摸点数组容量足够
      */
-    private void listTouchedChildren(View view, float localX, float localY) {
-        if (view == null || view.getVisibility() != VISIBLE || !pointInView(view, localX, localY)) {
-            //不可见或者未触摸
+    private void ensurePointerCapacity(int pointerCount) {
+        if (mPointerProperties.length >= pointerCount) {
             return;
         }
-        //设置触摸监听，用于识别消费触摸事件的child
-        view.setOnTouchListener(mChildOnTouchListener);
-        mTouchedChildren.add(view);
-        //递归集合child
-        if (view instanceof ViewGroup) {
-            ViewGroup viewGroup = ((ViewGroup) view);
+        MotionEvent.PointerProperties[] pointerProperties = new MotionEvent.PointerProperties[pointerCount];
+        MotionEvent.PointerCoords[] pointerCoords = new MotionEvent.PointerCoords[pointerCount];
+        System.arraycopy(mPointerProperties, 0, pointerProperties, 0, mPointerProperties.length);
+        System.arraycopy(mPointerCoords, 0, pointerCoords, 0, mPointerCoords.length);
+        for (int index = mPointerProperties.length; index < pointerCount; index++) {
+            pointerProperties[index] = new MotionEvent.PointerProperties();
+            pointerCoords[index] = new MotionEvent.PointerCoords();
+        }
+        mPointerProperties = pointerProperties;
+        mPointerCoords = pointerCoords;
+    }
+
+    /**
+     * 下发模拟事件并计数
+     */
+    private void dispatchSyntheticEvent(MotionEvent event) {
+        mSyntheticEventCount++;
+        super.dispatchTouchEvent(event);
+    }
+
+    /**
+     * 向child下发CANCEL事件，下发后恢复原事件类型
+     */
+    private void cancelChildTouchEvent(MotionEvent event) {
+        final int action = event.getAction();
+        event.setAction(MotionEvent.ACTION_CANCEL);
+        dispatchSyntheticEvent(event);
+        event.setAction(action);
+    }
+
+    /**
+     * 沿按下位置的触摸路径查找可垂直滑动的View链，只遍历路径上的View，不遍历整个子树
+     *
+     * @param x 按下X坐标，相对本布局的内容坐标
+     * @param y 按下Y坐标，相对本布局的内容坐标
+     */
+    private void resolveScrollableChain(float x, float y) {
+        mScrollableChain.clear();
+        isScrollableChainValid = true;
+        //相对于当前View父容器的坐标
+        float localX = x, localY = y;
+        View view = mChildView;
+        while (view != null && view.getVisibility() == VISIBLE && pointInView(view, localX, localY)) {
+            final boolean scrollable = view.canScrollVertically(1) || view.canScrollVertically(-1);
+            if (scrollable) {
+                mScrollableChain.add(view);
+            }
+            if (!(view instanceof ViewGroup)) {
+                break;
+            }
             //更新相对触摸坐标
             localX += view.getScrollX() - view.getLeft();
             localY += view.getScrollY() - view.getTop();
-            for (int index = 0; index < viewGroup.getChildCount(); index++) {
-                listTouchedChildren(viewGroup.getChildAt(index), localX, localY);
+            //查找最上层被触摸到的child
+            ViewGroup viewGroup = (ViewGroup) view;
+            view = null;
+            for (int index = viewGroup.getChildCount() - 1; index >= 0; index--) {
+                View child = viewGroup.getChildAt(index);
+                if (child.getVisibility() == VISIBLE && pointInView(child, localX, localY)) {
+                    view = child;
+                    break;
+                }
             }
         }
     }
@@ -546,15 +843,26 @@ public class SwipeRefreshLayout extends FrameLayout {
         if (scrollTo == 0) {
             return false;
         }
-        if (getScrollY() == 0) {
+        if (getPullOffset() == 0) {
             if (canConsumeVerticallyScroll(scrollTo)) {
                 return false;
+            } else if (scrollTo < 0) {
+                if (isHeaderEnabled()) {
+                    //仅加载即将拉开的一侧
+                    ensureHeaderRefreshView();
+                    return true;
+                }
+                return false;
             } else {
-                return scrollTo < 0 ? isHeaderEnabled() : isFooterEnabled();
+                if (isFooterEnabled()) {
+                    ensureFooterRefreshView();
+                    return true;
+                }
+                return false;
             }
         }
         //滚动变向则不展开
-        return scrollTo * getScrollY() > 0;
+        return scrollTo * getPullOffset() > 0;
     }
 
     /**
@@ -565,7 +873,24 @@ public class SwipeRefreshLayout extends FrameLayout {
      * @param direction 负值表示为下拉动作，否则为上拉
      */
     protected boolean canConsumeVerticallyScroll(int direction) {
-        return mCurConsumer != null && mCurConsumer.canScrollVertically(direction);
+        if (mNestedScrollTarget != null) {
+            if (mNestedScrollTarget.canScrollVertically(direction)) {
+                //由嵌套滑动协议确定的滑动目标
+                return true;
+            }
+            //外层父容器仍可能消费该方向的滑动（如展开AppBarLayout），交给child转发
+            return hasNestedScrollingParent(ViewCompat.TYPE_TOUCH) && mParentUnconsumedY * direction <= 0;
+        }
+        //child不支持嵌套滑动，检查按下位置的可滑动View链
+        if (!isScrollableChainValid) {
+            resolveScrollableChain(mChainTouchX, mChainTouchY);
+        }
+        for (int index = mScrollableChain.size() - 1; index >= 0; index--) {
+            if (mScrollableChain.get(index).canScrollVertically(direction)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -576,9 +901,9 @@ public class SwipeRefreshLayout extends FrameLayout {
      * @param isFinalState 是否为最终状态
      */
     public void scrollToRefresh(int scrollY, boolean lockState, boolean isFinalState) {
-        if (getScrollY() != scrollY) {
+        if (getPullOffset() != scrollY) {
             //改变偏移量
-            scrollTo(getScrollX(), scrollY);
+            applyPullOffset(scrollY);
         }
         if (!lockState) {
             resetRefreshView();
@@ -593,11 +918,55 @@ public class SwipeRefreshLayout extends FrameLayout {
         notifyOnRefresh();
     }
 
+    /**
+     * 获取当前拉开的偏移量，负值为下拉，正值为上拉
+     */
+    public int getPullOffset() {
+        return mOffsetMode == OFFSET_MODE_TRANSLATION ? mTranslationOffset : getScrollY();
+    }
+
+    /**
+     * 根据偏移模式移动内容及刷新控件
+     */
+    private void applyPullOffset(int offset) {
+        if (mOffsetMode == OFFSET_MODE_TRANSLATION) {
+            mTranslationOffset = offset;
+            for (int index = 0; index < getChildCount(); index++) {
+                getChildAt(index).setTranslationY(-offset);
+            }
+        } else {
+            scrollTo(getScrollX(), offset);
+        }
+    }
+
+    @Override
+    public void onViewAdded(View child) {
+        super.onViewAdded(child);
+        if (mChildView == null && child != mHeaderRefreshView && child != mFooterRefreshView) {
+            mChildView = child;
+        }
+        if (mOffsetMode == OFFSET_MODE_TRANSLATION) {
+            //新添加的控件与当前偏移量保持一致
+            child.setTranslationY(-mTranslationOffset);
+        }
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        if (child == mChildView) {
+            mChildView = null;
+        }
+        if (mOffsetMode == OFFSET_MODE_TRANSLATION) {
+            child.setTranslationY(0);
+        }
+    }
+
     /**
      * 根据偏移量改变刷新控件
      */
     private void resetRefreshView() {
-        final int scrollY = getScrollY();
+        final int scrollY = getPullOffset();
         if (scrollY != 0) {
             // 根据滑动距离变更刷新控件
             changeRefreshView(scrollY > 0 ? mFooterRefreshView : mHeaderRefreshView);
@@ -610,12 +979,12 @@ public class SwipeRefreshLayout extends FrameLayout {
      * @param isFinalState 是否为最终状态
      */
     private void resetRefreshState(boolean isFinalState) {
-        final int scrollY = getScrollY();
+        final int scrollY = getPullOffset();
 
         //当前视图是否可刷新
         final boolean isRefreshable = isCurRefreshViewRefreshable();
-        //当前拉开距离是否就绪
-        final boolean isReady = isRefreshable && Math.abs(scrollY) >= mCurRefreshView.getHeight();
+        //当前拉开距离是否就绪，刚加载的刷新控件尚未布局时以测量高度为准
+        final boolean isReady = isRefreshable && Math.abs(scrollY) >= getRefreshViewHeight(mCurRefreshView);
 
         switch (mRefreshState) {
             case STATE_UNABLE: {// 当前状态不可用
@@ -680,35 +1049,68 @@ public class SwipeRefreshLayout extends FrameLayout {
     private void notifyOnRefresh() {
         if (mOnRefreshListener != null && mCurRefreshView != null) {
             if (mCurRefreshView == mHeaderRefreshView) {
-                mOnRefreshListener.onHeaderRefresh(this, isChanged, mRefreshState, getScrollY());
+                mOnRefreshListener.onHeaderRefresh(this, isChanged, mRefreshState, getPullOffset());
             } else if (mCurRefreshView == mFooterRefreshView) {
-                mOnRefreshListener.onFooterRefresh(this, isChanged, mRefreshState, getScrollY());
+                mOnRefreshListener.onFooterRefresh(this, isChanged, mRefreshState, getPullOffset());
+            }
+        }
+        if (mRefreshController != null && mCurRefreshView != null && isChanged) {
+            mRefreshController.onRefreshStateChanged(this, mCurRefreshView, mRefreshState);
+        }
+        //刷新控件自身实现了进度监听时（如RefreshIndicatorView），同样回调
+        final OnRefreshProgressListener viewListener = mCurRefreshView instanceof OnRefreshProgressListener
+                ? (OnRefreshProgressListener) mCurRefreshView : null;
+        if (viewListener != null || (mOnRefreshProgressListener != null && mCurRefreshView != null)) {
+            if (isChanged) {
+                //状态或视图改变立即回调
+                if (viewListener != null) {
+                    viewListener.onRefreshStateChanged(this, mCurRefreshView, mRefreshState);
+                }
+                if (mOnRefreshProgressListener != null) {
+                    mOnRefreshProgressListener.onRefreshStateChanged(this, mCurRefreshView, mRefreshState);
+                }
+            }
+            //进度合并到下一帧回调
+            if (!isRefreshProgressScheduled) {
+                isRefreshProgressScheduled = true;
+                ViewCompat.postOnAnimation(this, mRefreshProgressRunnable);
             }
         }
         isChanged = false;
     }
 
-    @Override
-    public void scrollTo(int x, int y) {
-        if (!mTouchedChildren.isEmpty()) {
-            cancelPressedState();
+    /**
+     * 回调刷新进度，仅在进度或刷新控件改变时回调
+     */
+    private void dispatchRefreshProgress() {
+        if (mCurRefreshView == null) {
+            return;
+        }
+        final float progress = getRefreshProgress();
+        if (progress != mRefreshProgress || mCurRefreshView != mProgressRefreshView) {
+            mRefreshProgress = progress;
+            mProgressRefreshView = mCurRefreshView;
+            if (mCurRefreshView instanceof OnRefreshProgressListener) {
+                ((OnRefreshProgressListener) mCurRefreshView).onRefreshProgress(this, mCurRefreshView, progress);
+            }
+            if (mOnRefreshProgressListener != null) {
+                mOnRefreshProgressListener.onRefreshProgress(this, mCurRefreshView, progress);
+            }
         }
-        super.scrollTo(x, y);
     }
 
     /**
-     * 取消Pressed状态
+     * 获取当前刷新进度，即拉开距离与刷新控件高度之比，大于等于1表示距离已足够，可能大于1
      */
-    private void cancelPressedState() {
-        cancelLongPress();
-        setPressed(false);
-        //取消childPressed状态
-        for (View child : mTouchedChildren) {
-            child.cancelLongPress();
-            child.setPressed(false);
+    public float getRefreshProgress() {
+        if (mCurRefreshView == null) {
+            return 0F;
         }
-        //清空集合
-        mTouchedChildren.clear();
+        final int refreshViewHeight = getRefreshViewHeight(mCurRefreshView);
+        if (refreshViewHeight <= 0) {
+            return 0F;
+        }
+        return Math.abs(getPullOffset()) / (float) refreshViewHeight;
     }
 
     /**
@@ -717,10 +1119,11 @@ public class SwipeRefreshLayout extends FrameLayout {
      * 因为容器滑动后child部分区域会溢出导致不可见
      */
     private void fitChildPadding() {
-        if (!isFitChildPadding) {
+        //平移模式下不改变Padding，避免触发重新布局
+        if (!isFitChildPadding || mOffsetMode == OFFSET_MODE_TRANSLATION) {
             return;
         }
-        final int scrollY = getScrollY();
+        final int scrollY = getPullOffset();
         int paddingTop = 0;
         int paddingBottom = 0;
 
@@ -742,7 +1145,7 @@ public class SwipeRefreshLayout extends FrameLayout {
      * 此方法可被重写
      */
     protected void fitChildPadding(int paddingTop, int paddingBottom) {
-        final View child = getChildView();
+        final View child = mChildView;
         final int diffTop = paddingTop - child.getPaddingTop();
         final int diffBottom = paddingBottom - child.getPaddingBottom();
         if (diffTop == 0 && diffBottom == 0) {
@@ -832,15 +1235,325 @@ public class SwipeRefreshLayout extends FrameLayout {
             //先取消动画
             mRegressAnimator.cancel();
         }
+        if (mFlingAnimator != null) {
+            mFlingAnimator.cancel();
+        }
         postDelayed(new Runnable() {
             @Override
             public void run() {
                 mRegressAnimator.setFlingFrictionRatio(mRefreshState == STATE_REFRESH_COMPLETE ? 0.2F : 1.3F);
-                mRegressAnimator.startAnimator(getScrollY(), endValue, mRefreshState == STATE_REFRESH_COMPLETE ? 500 : 400);
+                mRegressAnimator.startAnimator(getPullOffset(), endValue, mRefreshState == STATE_REFRESH_COMPLETE ? 500 : 400);
             }
         }, delayMillis);
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (isPrefetchEnabled) {
+            getViewTreeObserver().addOnScrollChangedListener(mPrefetchScrollListener);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        getViewTreeObserver().removeOnScrollChangedListener(mPrefetchScrollListener);
+        if (isRefreshProgressScheduled) {
+            removeCallbacks(mRefreshProgressRunnable);
+            isRefreshProgressScheduled = false;
+        }
+        if (mRefreshController != null && mRefreshController.isLoading()) {
+            //取消进行中的加载，避免结果回调到已移除的视图
+            mRefreshController.cancel();
+            //直接复位，不通知刷新失败（预加载时会计入失败次数并退避），也不启动回归动画
+            isPrefetching = false;
+            if (mRegressAnimator != null && mRegressAnimator.isStarted()) {
+                mRegressAnimator.cancel();
+            }
+            changeRefreshState(STATE_CLOSE);
+            scrollToRefresh(0, true, true);
+        }
+        if (mFlingAnimator != null && mFlingAnimator.isStarted()) {
+            mFlingAnimator.end();
+        }
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * 判断是否接近底部，满足条件时触发底部预加载
+     * <p>
+     * 加载中、退避时间内、或上次加载后内容未增长时不会触发
+     */
+    private void checkPrefetch() {
+        if (!isPrefetchEnabled || mRefreshState != STATE_CLOSE || getPullOffset() != 0 || !isFooterRefreshable()) {
+            return;
+        }
+        if (mPrefetchFailureCount > 0 && SystemClock.uptimeMillis() < mPrefetchRetryTime) {
+            return;
+        }
+        final View target = mPrefetchTarget != null ? mPrefetchTarget : mChildView;
+        if (target == null || !target.isShown() || !ScrollEndHelper.hasContent(target)) {
+            return;
+        }
+        if (ScrollEndHelper.getRemainingItemCount(target) > mPrefetchItemThreshold
+                && ScrollEndHelper.getRemainingDistance(target) > mPrefetchDistance) {
+            return;
+        }
+        final int contentExtent = ScrollEndHelper.getContentExtent(target);
+        if (contentExtent == mPrefetchContentExtent) {
+            return;
+        }
+        mPrefetchContentExtent = contentExtent;
+        isPrefetching = true;
+        //直接进入刷新状态，不拉开底部刷新控件
+        ensureFooterRefreshView();
+        changeRefreshView(mFooterRefreshView);
+        changeRefreshState(STATE_REFRESHING);
+        notifyOnRefresh();
+    }
+
+    /*==========以下是嵌套滑动接口==========*/
+
+    @Override
+    public boolean onStartNestedScroll(@NonNull View child, @NonNull View target, int axes, int type) {
+        //只关心垂直方向的嵌套滑动
+        return isEnabled() && (axes & ViewCompat.SCROLL_AXIS_VERTICAL) != 0;
+    }
+
+    @Override
+    public boolean onStartNestedScroll(@NonNull View child, @NonNull View target, int axes) {
+        return onStartNestedScroll(child, target, axes, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onNestedScrollAccepted(@NonNull View child, @NonNull View target, int axes, int type) {
+        mNestedScrollingParentHelper.onNestedScrollAccepted(child, target, axes, type);
+        if (type == ViewCompat.TYPE_TOUCH) {
+            //记录滑动目标，用于判断滑动能否被child消费
+            mNestedScrollTarget = target;
+            mParentUnconsumedY = 0;
+        }
+        //向外层父容器发起嵌套滑动
+        startNestedScroll(axes & ViewCompat.SCROLL_AXIS_VERTICAL, type);
+    }
+
+    @Override
+    public void onNestedScrollAccepted(@NonNull View child, @NonNull View target, int axes) {
+        onNestedScrollAccepted(child, target, axes, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onStopNestedScroll(@NonNull View target, int type) {
+        //滑动目标保留到下次按下，拉开刷新时child会收到CANCEL事件而停止嵌套滑动
+        mNestedScrollingParentHelper.onStopNestedScroll(target, type);
+        stopNestedScroll(type);
+        if (type == ViewCompat.TYPE_NON_TOUCH) {
+            //惯性滑动结束仍未到达边缘，剩余速度作废，避免下次滑动到边缘时误触发回弹
+            mNestedFlingVelocity = 0;
+        }
+    }
+
+    @Override
+    public void onStopNestedScroll(@NonNull View target) {
+        onStopNestedScroll(target, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onNestedPreScroll(@NonNull View target, int dx, int dy, @NonNull int[] consumed, int type) {
+        //本布局不在child之前消费滑动，交给外层父容器
+        final int[] parentConsumed = mParentScrollConsumed;
+        parentConsumed[0] = 0;
+        parentConsumed[1] = 0;
+        if (dispatchNestedPreScroll(dx - consumed[0], dy - consumed[1], parentConsumed, null, type)) {
+            consumed[0] += parentConsumed[0];
+            consumed[1] += parentConsumed[1];
+        }
+    }
+
+    @Override
+    public void onNestedPreScroll(@NonNull View target, int dx, int dy, @NonNull int[] consumed) {
+        onNestedPreScroll(target, dx, dy, consumed, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onNestedScroll(@NonNull View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed, int type, @NonNull int[] consumed) {
+        //child未消费的距离先交给外层父容器
+        final int consumedY = consumed[1];
+        dispatchNestedScroll(dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, mParentOffsetInWindow, type, consumed);
+        dyUnconsumed -= consumed[1] - consumedY;
+        if (type == ViewCompat.TYPE_TOUCH) {
+            mParentUnconsumedY = dyUnconsumed;
+        }
+        if (type == ViewCompat.TYPE_NON_TOUCH && dyUnconsumed != 0 && mNestedFlingVelocity != 0) {
+            //child惯性滑动到达边缘，剩余速度转为拉开回弹
+            final float velocity = mNestedFlingVelocity;
+            mNestedFlingVelocity = 0;
+            if (velocity * dyUnconsumed > 0) {
+                startFlingOverscroll(velocity, SystemClock.uptimeMillis() - mNestedFlingStartTime);
+            }
+        }
+    }
+
+    @Override
+    public void onNestedScroll(@NonNull View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed, int type) {
+        onNestedScroll(target, dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, type, mNestedScrollConsumed);
+    }
+
+    @Override
+    public void onNestedScroll(@NonNull View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed) {
+        onNestedScroll(target, dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public boolean onNestedPreFling(@NonNull View target, float velocityX, float velocityY) {
+        if (dispatchNestedPreFling(velocityX, velocityY)) {
+            //外层父容器消费了惯性滑动
+            mNestedFlingVelocity = 0;
+            return true;
+        }
+        //记录child惯性滑动的初速度，到达边缘时计算剩余速度
+        mNestedFlingVelocity = isFlingOverscrollEnabled ? velocityY : 0;
+        mNestedFlingStartTime = SystemClock.uptimeMillis();
+        return false;
+    }
+
+    @Override
+    public boolean onNestedFling(@NonNull View target, float velocityX, float velocityY, boolean consumed) {
+        return dispatchNestedFling(velocityX, velocityY, consumed);
+    }
+
+    /**
+     * 以child惯性滑动的剩余速度拉开刷新控件，并回弹到关闭位置
+     *
+     * @param velocity    child惯性滑动的初速度，负值为向顶部滑动
+     * @param elapsedTime child惯性滑动已经过的时间
+     */
+    private void startFlingOverscroll(float velocity, long elapsedTime) {
+        if (!isFlingOverscrollEnabled || mRefreshState != STATE_CLOSE || getPullOffset() != 0 || isBeingMoved) {
+            return;
+        }
+        if (mRegressAnimator != null && mRegressAnimator.isStarted()) {
+            return;
+        }
+        final boolean isHeader = velocity < 0;
+        if (isHeader ? !isHeaderEnabled() : !isFooterEnabled()) {
+            return;
+        }
+        if (mFlingAnimator == null) {
+            //开启弹性效果，越界后回弹到边界
+            mFlingAnimator = new DecelerateAnimator(getContext(), true);
+            mFlingAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    float value = (Float) animation.getAnimatedValue();
+                    //最多拉开到刷新控件高度以内，不会进入就绪状态
+                    value = Math.max(-mFlingMaxOffset, Math.min(mFlingMaxOffset, value));
+                    scrollToRefresh((int) (value + (value < 0 ? -0.5F : 0.5F)), false, false);
+                }
+            });
+        }
+        final float residualVelocity = mFlingAnimator.getResidualVelocity(velocity, elapsedTime);
+        if (Math.abs(residualVelocity) < mMinimumFlingVelocity) {
+            return;
+        }
+        if (isHeader) {
+            ensureHeaderRefreshView();
+            mFlingMaxOffset = Math.max(0, getRefreshViewHeight(mHeaderRefreshView) - 1);
+            changeRefreshView(mHeaderRefreshView);
+            mFlingAnimator.startAnimator_Velocity(0, 0, 1, residualVelocity, 0);
+        } else {
+            ensureFooterRefreshView();
+            mFlingMaxOffset = Math.max(0, getRefreshViewHeight(mFooterRefreshView) - 1);
+            changeRefreshView(mFooterRefreshView);
+            mFlingAnimator.startAnimator_Velocity(0, -1, 0, residualVelocity, 0);
+        }
+    }
+
+    @Override
+    public int getNestedScrollAxes() {
+        return mNestedScrollingParentHelper.getNestedScrollAxes();
+    }
+
+    /*==========以下是嵌套滑动child接口，转发给外层父容器==========*/
+
+    @Override
+    public void setNestedScrollingEnabled(boolean enabled) {
+        //父类构造方法中可能调用，此时辅助类尚未初始化
+        if (mNestedScrollingChildHelper != null) {
+            mNestedScrollingChildHelper.setNestedScrollingEnabled(enabled);
+        }
+    }
+
+    @Override
+    public boolean isNestedScrollingEnabled() {
+        return mNestedScrollingChildHelper != null && mNestedScrollingChildHelper.isNestedScrollingEnabled();
+    }
+
+    @Override
+    public boolean startNestedScroll(int axes, int type) {
+        return mNestedScrollingChildHelper.startNestedScroll(axes, type);
+    }
+
+    @Override
+    public boolean startNestedScroll(int axes) {
+        return startNestedScroll(axes, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void stopNestedScroll(int type) {
+        mNestedScrollingChildHelper.stopNestedScroll(type);
+    }
+
+    @Override
+    public void stopNestedScroll() {
+        stopNestedScroll(ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public boolean hasNestedScrollingParent(int type) {
+        return mNestedScrollingChildHelper.hasNestedScrollingParent(type);
+    }
+
+    @Override
+    public boolean hasNestedScrollingParent() {
+        return hasNestedScrollingParent(ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void dispatchNestedScroll(int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed, int[] offsetInWindow, int type, @NonNull int[] consumed) {
+        mNestedScrollingChildHelper.dispatchNestedScroll(dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, offsetInWindow, type, consumed);
+    }
+
+    @Override
+    public boolean dispatchNestedScroll(int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed, int[] offsetInWindow, int type) {
+        return mNestedScrollingChildHelper.dispatchNestedScroll(dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, offsetInWindow, type);
+    }
+
+    @Override
+    public boolean dispatchNestedScroll(int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed, int[] offsetInWindow) {
+        return dispatchNestedScroll(dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, offsetInWindow, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public boolean dispatchNestedPreScroll(int dx, int dy, int[] consumed, int[] offsetInWindow, int type) {
+        return mNestedScrollingChildHelper.dispatchNestedPreScroll(dx, dy, consumed, offsetInWindow, type);
+    }
+
+    @Override
+    public boolean dispatchNestedPreScroll(int dx, int dy, int[] consumed, int[] offsetInWindow) {
+        return dispatchNestedPreScroll(dx, dy, consumed, offsetInWindow, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public boolean dispatchNestedFling(float velocityX, float velocityY, boolean consumed) {
+        return mNestedScrollingChildHelper.dispatchNestedFling(velocityX, velocityY, consumed);
+    }
+
+    @Override
+    public boolean dispatchNestedPreFling(float velocityX, float velocityY) {
+        return mNestedScrollingChildHelper.dispatchNestedPreFling(velocityX, velocityY);
+    }
+
     /*==========以下是外部接口==========*/
 
     /**
@@ -865,6 +1578,31 @@ public class SwipeRefreshLayout extends FrameLayout {
         isAdaptPointerDown = enable;
     }
 
+    /**
+     * 获取偏移模式
+     */
+    public int getOffsetMode() {
+        return mOffsetMode;
+    }
+
+    /**
+     * 设置偏移模式 {@link #OFFSET_MODE_SCROLL}、{@link #OFFSET_MODE_TRANSLATION}，当前偏移量会转移到新的模式
+     */
+    public void setOffsetMode(int offsetMode) {
+        if (mOffsetMode == offsetMode || (offsetMode != OFFSET_MODE_SCROLL && offsetMode != OFFSET_MODE_TRANSLATION)) {
+            return;
+        }
+        final int offset = getPullOffset();
+        applyPullOffset(0);
+        if (offsetMode == OFFSET_MODE_TRANSLATION && isFitChildPadding && mChildView != null) {
+            //还原适配的Padding值
+            fitChildPadding(0, 0);
+        }
+        mOffsetMode = offsetMode;
+        applyPullOffset(offset);
+        fitChildPadding();
+    }
+
     /**
      * 判断是否根据滑动距离适配Child的Padding值
      */
@@ -893,11 +1631,41 @@ public class SwipeRefreshLayout extends FrameLayout {
         isFitChildScroll = enable;
     }
 
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        updateStateFlags();
+    }
+
+    /**
+     * 重新计算可用及可刷新状态标志
+     * <p>
+     * 触摸事件中频繁判断，因此在输入条件（启用状态、开关、刷新控件、回调）改变时预先计算
+     */
+    private void updateStateFlags() {
+        int flags = 0;
+        if (isEnabled()) {
+            if (isHeaderEnabled && (mHeaderRefreshView != null || mHeaderLayoutID != NO_ID)) {
+                flags |= FLAG_HEADER_ENABLED;
+                if (isHeaderRefreshable && hasRefreshListener()) {
+                    flags |= FLAG_HEADER_REFRESHABLE;
+                }
+            }
+            if (isFooterEnabled && (mFooterRefreshView != null || mFooterLayoutID != NO_ID)) {
+                flags |= FLAG_FOOTER_ENABLED;
+                if (isFooterRefreshable && hasRefreshListener()) {
+                    flags |= FLAG_FOOTER_REFRESHABLE;
+                }
+            }
+        }
+        mStateFlags = flags;
+    }
+
     /**
      * 判断顶部是否可用（可以被拉开，但不一定可刷新）
      */
     public boolean isHeaderEnabled() {
-        return isEnabled() && isHeaderEnabled && mHeaderRefreshView != null;
+        return (mStateFlags & FLAG_HEADER_ENABLED) != 0;
     }
 
     /**
@@ -905,13 +1673,14 @@ public class SwipeRefreshLayout extends FrameLayout {
      */
     public void setHeaderEnabled(boolean enable) {
         isHeaderEnabled = enable;
+        updateStateFlags();
     }
 
     /**
      * 判断底部是否可用（可以被拉开，但不一定可刷新）
      */
     public boolean isFooterEnabled() {
-        return isEnabled() && isFooterEnabled && mFooterRefreshView != null;
+        return (mStateFlags & FLAG_FOOTER_ENABLED) != 0;
     }
 
     /**
@@ -919,13 +1688,14 @@ public class SwipeRefreshLayout extends FrameLayout {
      */
     public void setFooterEnabled(boolean enable) {
         isFooterEnabled = enable;
+        updateStateFlags();
     }
 
     /**
      * 判断顶部是否可以刷新
      */
     public boolean isHeaderRefreshable() {
-        return isHeaderEnabled() && isHeaderRefreshable && mOnRefreshListener != null;
+        return (mStateFlags & FLAG_HEADER_REFRESHABLE) != 0;
     }
 
     /**
@@ -936,13 +1706,14 @@ public class SwipeRefreshLayout extends FrameLayout {
             setHeaderEnabled(true);
         }
         isHeaderRefreshable = enable;
+        updateStateFlags();
     }
 
     /**
      * 判断底部是否可以刷新
      */
     public boolean isFooterRefreshable() {
-        return isFooterEnabled() && isFooterRefreshable && mOnRefreshListener != null;
+        return (mStateFlags & FLAG_FOOTER_REFRESHABLE) != 0;
     }
 
     /**
@@ -953,6 +1724,7 @@ public class SwipeRefreshLayout extends FrameLayout {
             setFooterEnabled(true);
         }
         isFooterRefreshable = enable;
+        updateStateFlags();
     }
 
     /**
@@ -987,24 +1759,39 @@ public class SwipeRefreshLayout extends FrameLayout {
      * 获取顶部刷新控件
      */
     public View getHeaderRefreshView() {
+        ensureHeaderRefreshView();
         return mHeaderRefreshView;
     }
 
+    /**
+     * 判断是否为顶部刷新控件，不会触发刷新控件的加载
+     */
+    public boolean isHeaderRefreshView(View view) {
+        return view != null && view == mHeaderRefreshView;
+    }
+
     /**
      * 设置顶部刷新控件
+     * <p>
+     * 仅记录布局ID，首次拉开、请求刷新或调用{@link #getHeaderRefreshView()}时才加载
      */
     public void setHeaderRefreshView(@LayoutRes int headerLayoutID) {
-        View headerRefreshView = headerLayoutID == NO_ID ? null : LayoutInflater.from(getContext()).inflate(headerLayoutID, this, false);
-        setHeaderRefreshView(headerRefreshView);
+        setHeaderRefreshView((View) null);
+        mHeaderLayoutID = headerLayoutID;
+        updateStateFlags();
     }
 
     /**
      * 设置顶部刷新控件
      */
     public void setHeaderRefreshView(View headerRefreshView) {
+        mHeaderLayoutID = NO_ID;
         if (headerRefreshView != mHeaderRefreshView) {
-            if (mHeaderRefreshView != null) {
-                removeView(mHeaderRefreshView);
+            final View oldHeaderRefreshView = mHeaderRefreshView;
+            //先赋值，使onViewAdded不会将刷新控件当作内容控件
+            mHeaderRefreshView = headerRefreshView;
+            if (oldHeaderRefreshView != null) {
+                removeView(oldHeaderRefreshView);
             }
             if (headerRefreshView != null) {
                 ViewGroup.LayoutParams params = headerRefreshView.getLayoutParams();
@@ -1013,32 +1800,45 @@ public class SwipeRefreshLayout extends FrameLayout {
                 }
                 super.addView(headerRefreshView, 0, params);
             }
-            mHeaderRefreshView = headerRefreshView;
         }
+        updateStateFlags();
     }
 
     /**
      * 获取底部刷新控件
      */
     public View getFooterRefreshView() {
+        ensureFooterRefreshView();
         return mFooterRefreshView;
     }
 
+    /**
+     * 判断是否为底部刷新控件，不会触发刷新控件的加载
+     */
+    public boolean isFooterRefreshView(View view) {
+        return view != null && view == mFooterRefreshView;
+    }
+
     /**
      * 设置底部刷新控件
      */
     public void setFooterRefreshView(@LayoutRes int footerLayoutID) {
-        View footerRefreshView = footerLayoutID == NO_ID ? null : LayoutInflater.from(getContext()).inflate(footerLayoutID, this, false);
-        setFooterRefreshView(footerRefreshView);
+        setFooterRefreshView((View) null);
+        mFooterLayoutID = footerLayoutID;
+        updateStateFlags();
     }
 
     /**
      * 设置底部刷新控件
      */
     public void setFooterRefreshView(View footerRefreshView) {
+        mFooterLayoutID = NO_ID;
         if (footerRefreshView != mFooterRefreshView) {
-            if (mFooterRefreshView != null) {
-                removeView(mFooterRefreshView);
+            final View oldFooterRefreshView = mFooterRefreshView;
+            //先赋值，使onViewAdded不会将刷新控件当作内容控件
+            mFooterRefreshView = footerRefreshView;
+            if (oldFooterRefreshView != null) {
+                removeView(oldFooterRefreshView);
             }
             if (footerRefreshView != null) {
                 ViewGroup.LayoutParams params = footerRefreshView.getLayoutParams();
@@ -1047,15 +1847,94 @@ public class SwipeRefreshLayout extends FrameLayout {
                 }
                 super.addView(footerRefreshView, 0, params);
             }
-            mFooterRefreshView = footerRefreshView;
+        }
+        updateStateFlags();
+    }
+
+    /**
+     * 加载待加载的顶部刷新控件
+     */
+    private void ensureHeaderRefreshView() {
+        if (mHeaderLayoutID != NO_ID) {
+            setHeaderRefreshView(LayoutInflater.from(getContext()).inflate(mHeaderLayoutID, this, false));
         }
     }
 
+    /**
+     * 加载待加载的底部刷新控件
+     */
+    private void ensureFooterRefreshView() {
+        if (mFooterLayoutID != NO_ID) {
+            setFooterRefreshView(LayoutInflater.from(getContext()).inflate(mFooterLayoutID, this, false));
+        }
+    }
+
+    /**
+     * 获取刷新控件高度，刚加载尚未布局时先进行测量
+     */
+    private int getRefreshViewHeight(View refreshView) {
+        if (refreshView.getHeight() > 0 || getWidth() <= 0) {
+            return refreshView.getHeight();
+        }
+        measureChild(refreshView, MeasureSpec.makeMeasureSpec(getWidth(), MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(getHeight(), MeasureSpec.AT_MOST));
+        return refreshView.getMeasuredHeight();
+    }
+
     /**
      * 设置刷新回调
      */
     public void setOnRefreshListener(OnRefreshListener listener) {
         this.mOnRefreshListener = listener;
+        updateStateFlags();
+    }
+
+    /**
+     * 设置刷新进度回调，与{@link #setOnRefreshListener}可同时使用
+     * <p>
+     * 刷新控件自身实现{@link OnRefreshProgressListener}时（如{@link RefreshIndicatorView}），无需设置也会回调给刷新控件
+     * <p>
+     * 状态改变时立即回调{@link OnRefreshProgressListener#onRefreshStateChanged}，
+     * 进度每帧最多回调一次{@link OnRefreshProgressListener#onRefreshProgress}，且仅在数值改变时回调
+     */
+    public void setOnRefreshProgressListener(OnRefreshProgressListener listener) {
+        this.mOnRefreshProgressListener = listener;
+        this.mRefreshProgress = -1;
+        this.mProgressRefreshView = null;
+        updateStateFlags();
+    }
+
+    /**
+     * 是否设置了刷新回调
+     */
+    private boolean hasRefreshListener() {
+        return mOnRefreshListener != null || mOnRefreshProgressListener != null || mRefreshController != null;
+    }
+
+    /**
+     * 设置刷新控制器，进入刷新状态时自动执行加载任务，并在加载结束或超时后通知刷新完成
+     * <p>
+     * 使用刷新控制器时无需再调用{@link #notifyRefreshComplete()}
+     */
+    public void setRefreshController(RefreshController controller) {
+        if (mRefreshController == controller) {
+            return;
+        }
+        if (mRefreshController != null) {
+            mRefreshController.detach();
+        }
+        mRefreshController = controller;
+        if (controller != null) {
+            controller.attach(this);
+        }
+        updateStateFlags();
+    }
+
+    /**
+     * 获取刷新控制器
+     */
+    public RefreshController getRefreshController() {
+        return mRefreshController;
     }
 
     /**
@@ -1069,6 +1948,11 @@ public class SwipeRefreshLayout extends FrameLayout {
      * 通知刷新完成，并延时开始回归动画
      */
     public void notifyRefreshCompleteDelayed(long delayMillis) {
+        if (isPrefetching) {
+            //预加载成功，重置失败次数
+            isPrefetching = false;
+            mPrefetchFailureCount = 0;
+        }
         if (mCurRefreshView == null || mRefreshState != STATE_REFRESHING) {
             return;
         }
@@ -1077,6 +1961,100 @@ public class SwipeRefreshLayout extends FrameLayout {
         startRegressAnimatorDelayed(0, delayMillis);
     }
 
+    /**
+     * 通知刷新失败，并开始回归动画
+     * <p>
+     * 由预加载触发的刷新失败后，在退避时间内不会再次触发预加载，连续失败时退避时间翻倍
+     */
+    public void notifyRefreshFailed() {
+        if (isPrefetching) {
+            isPrefetching = false;
+            mPrefetchFailureCount++;
+            mPrefetchRetryTime = SystemClock.uptimeMillis() + Math.min(PREFETCH_BACKOFF_MAX, PREFETCH_BACKOFF_BASE << Math.min(mPrefetchFailureCount - 1, 5));
+            //允许在内容未增长的情况下重试
+            mPrefetchContentExtent = -1;
+        }
+        notifyRefreshComplete();
+    }
+
+    /**
+     * 判断是否启用惯性回弹
+     */
+    public boolean isFlingOverscrollEnabled() {
+        return isFlingOverscrollEnabled;
+    }
+
+    /**
+     * 设置是否启用惯性回弹，默认启用
+     * <p>
+     * 启用时，支持嵌套滑动的child（如RecyclerView、NestedScrollView）惯性滑动到边缘后，
+     * 剩余速度会拉开刷新控件并回弹，不会触发刷新
+     */
+    public void setFlingOverscrollEnabled(boolean enable) {
+        this.isFlingOverscrollEnabled = enable;
+        if (!enable) {
+            mNestedFlingVelocity = 0;
+        }
+    }
+
+    /**
+     * 判断是否启用底部预加载
+     */
+    public boolean isPrefetchEnabled() {
+        return isPrefetchEnabled;
+    }
+
+    /**
+     * 设置是否启用底部预加载
+     * <p>
+     * 启用后，child滑动到距底部不足指定条目数或距离时，自动进入底部刷新状态（不拉开底部刷新控件），
+     * 通过{@link OnRefreshListener#onFooterRefresh}回调，加载完成后调用{@link #notifyRefreshComplete()}，
+     * 失败时调用{@link #notifyRefreshFailed()}。列表为空、或非列表View的内容不足以滑动时不会触发。
+     * <p>
+     * 注意：预加载期间处于{@link #STATE_REFRESHING}锁定状态（偏移量为0），与底部刷新相同，
+     * 在通知完成或失败之前无法下拉顶部刷新，{@link #requestHeaderRefresh()}也会被忽略，因此加载任务应及时结束。
+     */
+    public void setPrefetchEnabled(boolean enable) {
+        if (isPrefetchEnabled == enable) {
+            return;
+        }
+        isPrefetchEnabled = enable;
+        if (enable) {
+            mPrefetchContentExtent = -1;
+            mPrefetchFailureCount = 0;
+            if (ViewCompat.isAttachedToWindow(this)) {
+                getViewTreeObserver().addOnScrollChangedListener(mPrefetchScrollListener);
+            }
+        } else {
+            getViewTreeObserver().removeOnScrollChangedListener(mPrefetchScrollListener);
+        }
+    }
+
+    /**
+     * 设置预加载触发条件，满足任一条件即触发
+     *
+     * @param itemThreshold 距底部剩余条目数，适用于RecyclerView、AbsListView
+     * @param distance      距底部剩余距离，单位px
+     */
+    public void setPrefetchThreshold(int itemThreshold, int distance) {
+        this.mPrefetchItemThreshold = itemThreshold;
+        this.mPrefetchDistance = distance;
+    }
+
+    /**
+     * 设置预加载监听的滑动View，默认为childView。适用于childView内部嵌套列表的情况
+     */
+    public void setPrefetchTarget(View target) {
+        this.mPrefetchTarget = target;
+    }
+
+    /**
+     * 判断当前刷新是否由预加载触发，此时顶部刷新被锁定，参见{@link #setPrefetchEnabled(boolean)}
+     */
+    public boolean isPrefetching() {
+        return isPrefetching;
+    }
+
     /**
      * 请求顶部刷新
      * <p>
@@ -1088,10 +2066,11 @@ public class SwipeRefreshLayout extends FrameLayout {
      */
     public void requestHeaderRefresh() {
         if (isHeaderRefreshable() && mRefreshState != STATE_REFRESH_COMPLETE && mRefreshState != STATE_REFRESHING) {
+            ensureHeaderRefreshView();
             mCurRefreshView = mHeaderRefreshView;
             changeRefreshState(STATE_REFRESHING);
             notifyOnRefresh();
-            startRegressAnimator(isHeaderRefreshFolded() ? 0 : -mHeaderRefreshView.getHeight());
+            startRegressAnimator(isHeaderRefreshFolded() ? 0 : -getRefreshViewHeight(mHeaderRefreshView));
         }
     }
 
@@ -1106,10 +2085,11 @@ public class SwipeRefreshLayout extends FrameLayout {
      */
     public void requestFooterRefresh() {
         if (isFooterRefreshable() && mRefreshState != STATE_REFRESH_COMPLETE && mRefreshState != STATE_REFRESHING) {
+            ensureFooterRefreshView();
             mCurRefreshView = mFooterRefreshView;
             changeRefreshState(STATE_REFRESHING);
             notifyOnRefresh();
-            startRegressAnimator(isFooterRefreshFolded() ? 0 : mFooterRefreshView.getHeight());
+            startRegressAnimator(isFooterRefreshFolded() ? 0 : getRefreshViewHeight(mFooterRefreshView));
         }
     }
 
@@ -1124,13 +2104,14 @@ public class SwipeRefreshLayout extends FrameLayout {
      * 获取childView（排除刷新控件）
      */
     public View getChildView() {
-        for (int i = 0; i < getChildCount(); i++) {
-            View child = getChildAt(i);
-            if (child != mHeaderRefreshView && child != mFooterRefreshView) {
-                return child;
-            }
-        }
-        return null;
+        return mChildView;
+    }
+
+    /**
+     * 获取当前手势中下发给child的模拟事件数量（DOWN、MOVE、POINTER_DOWN、CANCEL），用于调试
+     */
+    public int getSyntheticEventCount() {
+        return mSyntheticEventCount;
     }
 
     /**
@@ -1166,4 +2147,28 @@ public class SwipeRefreshLayout extends FrameLayout {
         void onFooterRefresh(SwipeRefreshLayout parent, boolean isChanged, int state, float offset);
     }
 
+    /**
+     * 刷新进度监听接口，将状态改变与拉开进度分开回调
+     */
+    public interface OnRefreshProgressListener {
+
+        /**
+         * 刷新状态或刷新控件改变时回调
+         *
+         * @param parent      父容器
+         * @param refreshView 当前刷新控件，可通过{@link #getHeaderRefreshView()}、{@link #getFooterRefreshView()}区分
+         * @param state       状态值 {@link #STATE_UNABLE}、{@link #STATE_CLOSE}、{@link #STATE_OPEN}、{@link #STATE_READY}、{@link #STATE_REFRESHING}、{@link #STATE_REFRESH_COMPLETE}
+         */
+        void onRefreshStateChanged(SwipeRefreshLayout parent, View refreshView, int state);
+
+        /**
+         * 拉开进度改变时回调，每帧最多一次
+         *
+         * @param parent      父容器
+         * @param refreshView 当前刷新控件
+         * @param progress    拉开距离与刷新控件高度之比，大于等于1表示距离已足够
+         */
+        void onRefreshProgress(SwipeRefreshLayout parent, View refreshView, float progress);
+    }
+
 }
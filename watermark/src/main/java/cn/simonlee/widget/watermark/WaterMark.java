@@ -2,10 +2,13 @@ package cn.simonlee.widget.watermark;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.BitmapShader;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Rect;
+import android.graphics.Shader;
 import android.graphics.Typeface;
 import android.util.AttributeSet;
 import android.view.View;
@@ -166,6 +169,141 @@ public class WaterMark {
      */
     private boolean isEnabled = true;
 
+    /**
+     * 水印文本模板
+     */
+    private WaterMarkTemplate mTextTemplate;
+
+    /**
+     * 水印文本模板刷新间隔，单位ms
+     */
+    private long mRefreshInterval;
+
+    /**
+     * 模板刷新是否因目标View不可见而暂停
+     */
+    private boolean isRefreshPaused;
+
+    /**
+     * 模板刷新任务
+     */
+    private final Runnable mRefreshRunnable = new Runnable() {
+        @Override
+        public void run() {
+            refreshTemplateText();
+        }
+    };
+
+    /**
+     * 是否使用进程级共享渲染缓存{@link WaterMarkCache}
+     */
+    private boolean isRenderCacheEnabled;
+
+    /**
+     * 当前引用的共享渲染缓存
+     */
+    private WaterMarkCache.Entry mRenderEntry;
+
+    /**
+     * 共享渲染缓存是否需要重新获取
+     */
+    private boolean isRenderDirty = true;
+
+    /**
+     * 平铺共享水印单元的着色器，每个水印单独持有，绘制时设置各自的对齐矩阵
+     */
+    private BitmapShader mRenderShader;
+
+    /**
+     * 平铺共享水印单元的画笔
+     */
+    private final Paint mRenderPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    /**
+     * 水印单元的对齐矩阵
+     */
+    private final Matrix mRenderMatrix = new Matrix();
+
+    /**
+     * 当前引用的水印单元对应的重复周期，水印区域尺寸变化可能改变实际行距列距
+     */
+    private float mRenderStepX, mRenderStepY;
+
+    /**
+     * 裁剪区域（旋转后坐标系），用于剔除不可见的水印
+     */
+    private final Rect mClipBounds = new Rect();
+
+    /**
+     * 最近一次绘制的水印个数
+     */
+    private int mDrawnCount;
+
+    /**
+     * 水印布局是否需要重新计算
+     */
+    private boolean isGeometryDirty = true;
+
+    /**
+     * 上次计算水印布局时的水印区域宽度
+     */
+    private int mMeasuredWidth;
+
+    /**
+     * 上次计算水印布局时的水印区域高度
+     */
+    private int mMeasuredHeight;
+
+    /**
+     * 旋转后的画布宽度
+     */
+    private float mCanvasWidth;
+
+    /**
+     * 旋转后的画布高度
+     */
+    private float mCanvasHeight;
+
+    /**
+     * 旋转后画布的顶点横坐标
+     */
+    private float mOriginX;
+
+    /**
+     * 旋转后画布的顶点纵坐标
+     */
+    private float mOriginY;
+
+    /**
+     * 实际行距
+     */
+    private float mRealRowSpacing;
+
+    /**
+     * 实际列距
+     */
+    private float mRealColumnSpacing;
+
+    /**
+     * 第一个水印的绘制点横坐标
+     */
+    private float mStartDrawX;
+
+    /**
+     * 错位行第一个水印的绘制点横坐标
+     */
+    private float mStartDrawX_jagged;
+
+    /**
+     * 第一个水印的绘制点纵坐标
+     */
+    private float mStartDrawY;
+
+    /**
+     * 第一个水印距中心水印的行数
+     */
+    private int mStartRow;
+
     public WaterMark(View targetView, AttributeSet attributeSet, int defStyleAttr) {
         this.mTargetView = targetView;
         //初始化
@@ -174,6 +312,52 @@ public class WaterMark {
         if (mTargetView.isInEditMode()) {
             mWaterMarkText = "example";
         }
+        //附加/分离窗口时恢复/停止模板刷新
+        mTargetView.addOnAttachStateChangeListener(new View.OnAttachStateChangeListener() {
+            @Override
+            public void onViewAttachedToWindow(View v) {
+                if (isRefreshPaused) {
+                    isRefreshPaused = false;
+                    refreshTemplateText();
+                }
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                //释放共享渲染缓存，重新附加后在绘制时再获取
+                releaseRenderCache();
+                if (mTextTemplate != null) {
+                    mTargetView.removeCallbacks(mRefreshRunnable);
+                    isRefreshPaused = true;
+                }
+            }
+        });
+    }
+
+    /**
+     * 复制水印配置，用于离屏绘制，不关联目标View，不复制边距及文本模板
+     * 画笔均为副本，可在子线程中使用而不影响原水印
+     */
+    WaterMark(WaterMark source) {
+        this.mTargetView = null;
+        this.mTextPaint = new Paint(source.mTextPaint);
+        this.mTextBackgroundPaint = new Paint(source.mTextBackgroundPaint);
+        this.mWaterMarkText = source.mWaterMarkText;
+        this.mTextSize = source.mTextSize;
+        this.mTextColor = source.mTextColor;
+        this.mTextBackgroundColor = source.mTextBackgroundColor;
+        this.mDegrees = source.mDegrees;
+        this.mTextWidth = source.mTextWidth;
+        this.mTextHeight = source.mTextHeight;
+        this.mTextBaseLine = source.mTextBaseLine;
+        this.mRowSpacing = source.mRowSpacing;
+        this.mColumnSpacing = source.mColumnSpacing;
+        this.mDensity = source.mDensity;
+        this.mMinRowSpacing = source.mMinRowSpacing;
+        this.mMaxRowSpacing = source.mMaxRowSpacing;
+        this.mMinColumnSpacing = source.mMinColumnSpacing;
+        this.mMaxColumnSpacing = source.mMaxColumnSpacing;
+        this.isEnabled = source.isEnabled;
     }
 
     /**
@@ -289,6 +473,13 @@ public class WaterMark {
      * 在目标View的dispatchDraw方法中最后调用，保证水印在最顶层显示
      */
     public void drawWaterMark(Canvas canvas) {
+        if (isRefreshPaused) {
+            //重新可见，恢复模板刷新
+            isRefreshPaused = false;
+            updateText(mTextTemplate.format(mWaterMarkText));
+            scheduleTextRefresh();
+        }
+
         if (!isEnabled || mWaterMarkText == null || mWaterMarkText.length() < 1) {
             return;
         }
@@ -307,16 +498,229 @@ public class WaterMark {
         //根据drawpadding校正画布顶点坐标
         canvas.translate(mDrawPaddingLeft, mDrawPaddingTop);
 
+        //优先使用共享渲染缓存，缓存不可用时直接绘制
+        if (!isRenderCacheEnabled || !drawRenderCache(canvas, width, height)) {
+            drawWaterMark(canvas, width, height);
+        }
+
+        //回复画布状态
+        canvas.restore();
+    }
+
+    /**
+     * 以共享水印单元平铺绘制水印
+     *
+     * @return 是否绘制成功
+     */
+    private boolean drawRenderCache(Canvas canvas, int width, int height) {
+        if (isTemplateRefreshing()) {
+            //动态模板文本频繁变化，每次变化都需渲染新的水印单元，直接绘制即可
+            releaseRenderCache();
+            return false;
+        }
+        //渲染前完成布局计算，规范旋转角度
+        measureWaterMark(width, height);
+        final float stepX = getTileStepX();
+        final float stepY = getTileStepY();
+        if (stepX <= 0 || stepY <= 0) {
+            releaseRenderCache();
+            return false;
+        }
+        final int tileWidth = (int) Math.ceil(stepX);
+        final int tileHeight = (int) Math.ceil(stepY * 2);
+        if ((long) tileWidth * tileHeight >= (long) width * height) {
+            //水印稀疏，水印单元不小于水印区域，直接绘制即可
+            releaseRenderCache();
+            return false;
+        }
+        WaterMarkCache.Entry entry = mRenderEntry;
+        if (isRenderDirty || entry == null || entry.isEvicted || mRenderStepX != stepX || mRenderStepY != stepY) {
+            //参数或重复周期变化，释放旧缓存并获取新缓存
+            releaseRenderCache();
+            entry = mRenderEntry = WaterMarkCache.acquire(this, tileWidth, tileHeight);
+            isRenderDirty = false;
+            if (entry == null) {
+                return false;
+            }
+            mRenderStepX = stepX;
+            mRenderStepY = stepY;
+            mRenderShader = new BitmapShader(entry.bitmap, Shader.TileMode.REPEAT, Shader.TileMode.REPEAT);
+            mRenderPaint.setShader(mRenderShader);
+        }
+        canvas.save();
+        canvas.clipRect(0, 0, width, height);
+        canvas.rotate(mDegrees);
+        canvas.translate(mOriginX, mOriginY);
+        mDrawnCount = 0;
+        //仅填充旋转后坐标系下的裁剪区域，局部重绘时不绘制不可见部分
+        if (canvas.getClipBounds(mClipBounds)) {
+            //水印单元的第一行对应偶数行，并缩放回实际的重复周期
+            final float tileTop = (mStartRow & 1) == 0 ? mStartDrawY : mStartDrawY - stepY;
+            mRenderMatrix.setScale(stepX / tileWidth, stepY * 2 / tileHeight);
+            mRenderMatrix.postTranslate(mStartDrawX, tileTop);
+            mRenderShader.setLocalMatrix(mRenderMatrix);
+            canvas.drawRect(Math.max(0, mClipBounds.left), Math.max(0, mClipBounds.top),
+                    Math.min(mCanvasWidth, mClipBounds.right), Math.min(mCanvasHeight, mClipBounds.bottom), mRenderPaint);
+        }
+        canvas.restore();
+        return true;
+    }
+
+    /**
+     * 是否在按刷新间隔更新动态模板文本
+     */
+    private boolean isTemplateRefreshing() {
+        return mTextTemplate != null && mRefreshInterval > 0 && mTextTemplate.hasDynamicField();
+    }
+
+    /**
+     * 返回水印图案的横向重复周期，需在水印布局计算完成后调用
+     */
+    float getTileStepX() {
+        return mTextWidth + mRealColumnSpacing;
+    }
+
+    /**
+     * 返回水印图案的行高，两行错位后重复，需在水印布局计算完成后调用
+     */
+    float getTileStepY() {
+        return mTextHeight + mRealRowSpacing;
+    }
+
+    /**
+     * 绘制水印单元：偶数行水印位于左上角，奇数行水印错位半个周期，超出右侧的部分绘制到左侧
+     * <p>
+     * 错位行的起始横坐标与偶数行相差(mTextWidth + mRealColumnSpacing) / 2，与水印区域尺寸无关
+     */
+    void drawWaterMarkTile(Canvas canvas) {
+        final float stepX = getTileStepX();
+        final float stepY = getTileStepY();
+        drawTextCell(canvas, 0, 0);
+        drawTextCell(canvas, stepX / 2F, stepY);
+        drawTextCell(canvas, stepX / 2F - stepX, stepY);
+    }
+
+    /**
+     * 绘制单个水印
+     */
+    private void drawTextCell(Canvas canvas, float drawX, float drawY) {
+        if (Color.TRANSPARENT != mTextBackgroundColor) {
+            //绘制水印背景色
+            canvas.drawRect(drawX, drawY, drawX + mTextWidth, drawY + mTextHeight, mTextBackgroundPaint);
+        }
+        //绘制水印文本
+        canvas.drawText(mWaterMarkText, drawX, drawY + mTextBaseLine, mTextPaint);
+    }
+
+    /**
+     * 释放共享渲染缓存
+     */
+    private void releaseRenderCache() {
+        if (mRenderEntry != null) {
+            WaterMarkCache.release(mRenderEntry);
+            mRenderEntry = null;
+            mRenderShader = null;
+            mRenderPaint.setShader(null);
+        }
+    }
+
+    /**
+     * 在指定尺寸的水印区域内绘制水印
+     *
+     * @param width  水印区域宽度
+     * @param height 水印区域高度
+     */
+    void drawWaterMark(Canvas canvas, int width, int height) {
+        if (width < 1 || height < 1) {
+            return;
+        }
+
+        //计算水印布局，尺寸及参数未变化时直接复用
+        measureWaterMark(width, height);
+
+        //保存画布状态
+        canvas.save();
+
         //去除水印区域外部的绘制
         canvas.clipRect(0, 0, width, height);
 
+        //旋转画布
+        canvas.rotate(mDegrees);
+
+        //平移画布，使顶点坐标由(originX, originY)变为(0, 0),便于后续计算
+        canvas.translate(mOriginX, mOriginY);
+
+        mDrawnCount = 0;
+
+        //获取旋转后坐标系下的裁剪区域，局部重绘时仅绘制与之相交的水印
+        if (!canvas.getClipBounds(mClipBounds)) {
+            canvas.restore();
+            return;
+        }
+        //文本实际绘制范围可能略超出测量宽高（如字体加粗），适当扩大裁剪区域
+        final float slop = mTextHeight / 2F;
+        final float clipLeft = mClipBounds.left - slop;
+        final float clipTop = mClipBounds.top - slop;
+        final float clipRight = Math.min(mCanvasWidth, mClipBounds.right + slop);
+        final float clipBottom = Math.min(mCanvasHeight, mClipBounds.bottom + slop);
+
+        final float stepX = mTextWidth + mRealColumnSpacing;
+        final float stepY = mTextHeight + mRealRowSpacing;
+
+        //计算与裁剪区域相交的第一行
+        int firstRow = (int) Math.floor((clipTop - mTextHeight - mStartDrawY) / stepY);
+        if (firstRow < 0) {
+            firstRow = 0;
+        }
+        int row = mStartRow + firstRow;
+        //行循环：一行一行绘制
+        for (float drawY = mStartDrawY + firstRow * stepY; drawY < clipBottom; drawY += stepY) {
+            //画布在绘制文本时不以文本顶部为基准进行绘制，而是以基线为准，这里要加上基线高度
+            float baseY = drawY + mTextBaseLine;
+            //根据行数的奇偶来判断每行的起始横坐标是否需要错位
+            float startDrawX = row++ % 2 == 0 ? mStartDrawX : mStartDrawX_jagged;
+            //计算与裁剪区域相交的第一列
+            int firstColumn = (int) Math.floor((clipLeft - mTextWidth - startDrawX) / stepX);
+            if (firstColumn < 0) {
+                firstColumn = 0;
+            }
+            //列循环：在行内一个一个绘制
+            for (float drawX = startDrawX + firstColumn * stepX; drawX < clipRight; drawX += stepX) {
+                if (Color.TRANSPARENT != mTextBackgroundColor) {
+                    //绘制水印背景色
+                    canvas.drawRect(drawX, drawY, drawX + mTextWidth, drawY + mTextHeight, mTextBackgroundPaint);
+                }
+                //绘制水印文本
+                canvas.drawText(mWaterMarkText, drawX, baseY, mTextPaint);
+                mDrawnCount++;
+            }
+        }
+        //回复画布状态
+        canvas.restore();
+    }
+
+    /**
+     * 计算水印布局（旋转后画布尺寸、顶点坐标、实际行距列距、起始绘制点）
+     * 仅在水印区域尺寸变化或相关参数被修改后重新计算
+     *
+     * @param width  水印区域宽度
+     * @param height 水印区域高度
+     */
+    private void measureWaterMark(int width, int height) {
+        if (!isGeometryDirty && width == mMeasuredWidth && height == mMeasuredHeight) {
+            return;
+        }
+        this.isGeometryDirty = false;
+        this.mMeasuredWidth = width;
+        this.mMeasuredHeight = height;
+
         //将旋转角度限定在[-90,90)范围内
         mDegrees = ((mDegrees - 90) % 180 + 180) % 180 - 90;
 
-        //旋转画布
-        canvas.rotate(mDegrees);
         //旋转角度转换为弧度
         final double radians = Math.abs(Math.toRadians(mDegrees));
+        final double sin = Math.sin(radians);
+        final double cos = Math.cos(radians);
 
         /*
          * 画布的顶点默认为左上角(0, 0)，经过绕顶点旋转后，画布无法完全覆盖整个View
@@ -324,19 +728,21 @@ public class WaterMark {
          * */
 
         //重新计算宽高尺寸
-        final float canvasWidth = (float) (Math.sin(radians) * height + Math.cos(radians) * width);
-        final float canvasHeight = (float) (Math.sin(radians) * width + Math.cos(radians) * height);
+        final float canvasWidth = (float) (sin * height + cos * width);
+        final float canvasHeight = (float) (sin * width + cos * height);
+        this.mCanvasWidth = canvasWidth;
+        this.mCanvasHeight = canvasHeight;
 
         //确认新的顶点坐标
-        final float originX = (mDegrees >= 0) ? 0 : (float) (-Math.sin(radians) * height);
-        final float originY = (mDegrees >= 0) ? (float) (-Math.sin(radians) * width) : 0;
-        //平移画布，使顶点坐标由(originX, originY)变为(0, 0),便于后续计算
-        canvas.translate(originX, originY);
+        this.mOriginX = (mDegrees >= 0) ? 0 : (float) (-sin * height);
+        this.mOriginY = (mDegrees >= 0) ? (float) (-sin * width) : 0;
 
         //获取真实行距
         final float realRowSpacing = getRealRowSpacing(canvasWidth);
         //获取真实列距
         final float realColumnSpacing = getRealColumnSpacing(canvasHeight);
+        this.mRealRowSpacing = realRowSpacing;
+        this.mRealColumnSpacing = realColumnSpacing;
 
         /*
          * 水印应该以View的中心点为基准进行绘制，以确保当View的大小仅能容下一个水印时，这个水印是居中显示的
@@ -366,25 +772,18 @@ public class WaterMark {
             startDrawY -= mTextHeight + realRowSpacing;
             row++;
         }
+        this.mStartDrawX = startDrawX;
+        this.mStartDrawX_jagged = startDrawX_jagged;
+        this.mStartDrawY = startDrawY;
+        this.mStartRow = row;
+    }
 
-        //行循环：一行一行绘制
-        for (float drawY = startDrawY; drawY < canvasHeight; drawY += mTextHeight + realRowSpacing) {
-            //画布在绘制文本时不以文本顶部为基准进行绘制，而是以基线为准，这里要加上基线高度
-            float baseY = drawY + mTextBaseLine;
-            //根据行数的奇偶来判断每行的起始横坐标是否需要错位
-            float drawX = row++ % 2 == 0 ? startDrawX : startDrawX_jagged;
-            //列循环：在行内一个一个绘制
-            for (; drawX < canvasWidth; drawX += mTextWidth + realColumnSpacing) {
-                if (Color.TRANSPARENT != mTextBackgroundColor) {
-                    //绘制水印背景色
-                    canvas.drawRect(drawX, drawY, drawX + mTextWidth, drawY + mTextHeight, mTextBackgroundPaint);
-                }
-                //绘制水印文本
-                canvas.drawText(mWaterMarkText, drawX, baseY, mTextPaint);
-            }
-        }
-        //回复画布状态
-        canvas.restore();
+    /**
+     * 标记水印布局需要重新计算
+     */
+    private void markGeometryDirty() {
+        this.isGeometryDirty = true;
+        this.isRenderDirty = true;
     }
 
     /**
@@ -437,7 +836,22 @@ public class WaterMark {
      * @param waterMark 水印文本
      */
     public void setText(String waterMark) {
+        //手动指定文本时，取消文本模板
+        setTextTemplate(null, 0);
+        updateText(waterMark);
+    }
+
+    /**
+     * 更新水印文本，文本未变化时不做处理
+     *
+     * @return 文本是否变化
+     */
+    private boolean updateText(String waterMark) {
+        if (waterMark == null ? mWaterMarkText == null : waterMark.equals(mWaterMarkText)) {
+            return false;
+        }
         this.mWaterMarkText = waterMark;
+        markGeometryDirty();
         if (mWaterMarkText != null) {
             //计算文本的宽度
             this.mTextWidth = mTextPaint.measureText(mWaterMarkText);
@@ -447,6 +861,80 @@ public class WaterMark {
             //根据文本尺寸计算基线位置
             mTextBaseLine = (mTextHeight - textBounds.top - textBounds.bottom) / 2F;
         }
+        return true;
+    }
+
+    /**
+     * 设置水印文本模板，按刷新间隔更新动态字段，仅在文本变化时重绘
+     * 目标View不可见时暂停刷新，重新绘制时恢复
+     *
+     * @param template        水印文本模板，为null时取消模板
+     * @param refreshInterval 刷新间隔，单位ms，小于等于0时不自动刷新
+     */
+    public void setTextTemplate(WaterMarkTemplate template, long refreshInterval) {
+        this.mTextTemplate = template;
+        this.mRefreshInterval = refreshInterval;
+        mTargetView.removeCallbacks(mRefreshRunnable);
+        isRefreshPaused = false;
+        if (template != null) {
+            updateText(template.format(mWaterMarkText));
+            scheduleTextRefresh();
+            invalidate();
+        }
+    }
+
+    /**
+     * 返回水印文本模板
+     */
+    public WaterMarkTemplate getTextTemplate() {
+        return mTextTemplate;
+    }
+
+    /**
+     * 设置水印文本模板的刷新间隔，单位ms
+     */
+    public void setRefreshInterval(long refreshInterval) {
+        setTextTemplate(mTextTemplate, refreshInterval);
+    }
+
+    /**
+     * 返回水印文本模板的刷新间隔，单位ms
+     */
+    public long getRefreshInterval() {
+        return mRefreshInterval;
+    }
+
+    /**
+     * 安排下一次模板刷新，对齐到刷新间隔的整数倍时刻，使时间字段准时跳变
+     */
+    private void scheduleTextRefresh() {
+        if (mTextTemplate == null || mRefreshInterval <= 0 || !mTextTemplate.hasDynamicField()) {
+            return;
+        }
+        if (mTargetView.getWindowToken() == null) {
+            //未附加到窗口，等待onViewAttachedToWindow时恢复
+            isRefreshPaused = true;
+            return;
+        }
+        mTargetView.postDelayed(mRefreshRunnable, mRefreshInterval - System.currentTimeMillis() % mRefreshInterval);
+    }
+
+    /**
+     * 刷新模板文本，目标View不可见时暂停
+     */
+    private void refreshTemplateText() {
+        if (mTextTemplate == null) {
+            return;
+        }
+        if (mTargetView.getWindowVisibility() != View.VISIBLE || !mTargetView.isShown()) {
+            //不可见时暂停刷新，在下次绘制时恢复
+            isRefreshPaused = true;
+            return;
+        }
+        if (updateText(mTextTemplate.format(mWaterMarkText))) {
+            invalidate();
+        }
+        scheduleTextRefresh();
     }
 
     /**
@@ -464,7 +952,11 @@ public class WaterMark {
      * @param textSize 水印文本字号
      */
     public void setTextSize(float textSize) {
+        if (mTextSize == textSize) {
+            return;
+        }
         this.mTextSize = textSize;
+        markGeometryDirty();
         mTextPaint.setTextSize(textSize);
         //计算文本的宽高
         Paint.FontMetrics fontMetrics = mTextPaint.getFontMetrics();
@@ -494,8 +986,11 @@ public class WaterMark {
      * @param textColor 字体颜色
      */
     public void setTextColor(int textColor) {
-        this.mTextColor = textColor;
-        mTextPaint.setColor(mTextColor);
+        if (mTextColor != textColor) {
+            this.mTextColor = textColor;
+            mTextPaint.setColor(mTextColor);
+            this.isRenderDirty = true;
+        }
     }
 
     /**
@@ -513,8 +1008,11 @@ public class WaterMark {
      * @param textBackgroundColor 水印背景颜色
      */
     public void setTextBackgroundColor(int textBackgroundColor) {
-        this.mTextBackgroundColor = textBackgroundColor;
-        mTextBackgroundPaint.setColor(mTextBackgroundColor);
+        if (mTextBackgroundColor != textBackgroundColor) {
+            this.mTextBackgroundColor = textBackgroundColor;
+            mTextBackgroundPaint.setColor(mTextBackgroundColor);
+            this.isRenderDirty = true;
+        }
     }
 
     /**
@@ -532,7 +1030,10 @@ public class WaterMark {
      * @param degrees 旋转角度
      */
     public void setWaterMarkDegrees(int degrees) {
-        this.mDegrees = degrees;
+        if (mDegrees != degrees) {
+            this.mDegrees = degrees;
+            markGeometryDirty();
+        }
     }
 
     /**
@@ -559,7 +1060,10 @@ public class WaterMark {
      * @param rowSpacing 水印行距
      */
     public void setRowSpacing(int rowSpacing) {
-        this.mRowSpacing = rowSpacing;
+        if (mRowSpacing != rowSpacing) {
+            this.mRowSpacing = rowSpacing;
+            markGeometryDirty();
+        }
     }
 
     /**
@@ -577,7 +1081,10 @@ public class WaterMark {
      * @param columnSpacing 水印列距
      */
     public void setColumnSpacing(int columnSpacing) {
-        this.mColumnSpacing = columnSpacing;
+        if (mColumnSpacing != columnSpacing) {
+            this.mColumnSpacing = columnSpacing;
+            markGeometryDirty();
+        }
     }
 
     /**
@@ -596,7 +1103,10 @@ public class WaterMark {
      * @param density 水印密度
      */
     public void setDensity(float density) {
-        this.mDensity = density;
+        if (mDensity != density) {
+            this.mDensity = density;
+            markGeometryDirty();
+        }
     }
 
     /**
@@ -614,7 +1124,10 @@ public class WaterMark {
      * @param minRowSpacing 水印最小行距
      */
     public void setMinRowSpacing(float minRowSpacing) {
-        this.mMinRowSpacing = minRowSpacing;
+        if (mMinRowSpacing != minRowSpacing) {
+            this.mMinRowSpacing = minRowSpacing;
+            markGeometryDirty();
+        }
     }
 
     /**
@@ -632,7 +1145,10 @@ public class WaterMark {
      * @param maxRowSpacing 水印最大行距
      */
     public void setMaxRowSpacing(float maxRowSpacing) {
-        this.mMaxRowSpacing = maxRowSpacing;
+        if (mMaxRowSpacing != maxRowSpacing) {
+            this.mMaxRowSpacing = maxRowSpacing;
+            markGeometryDirty();
+        }
     }
 
     /**
@@ -650,7 +1166,10 @@ public class WaterMark {
      * @param minColumnSpacing 水印最小列距
      */
     public void setMinColumnSpacing(float minColumnSpacing) {
-        this.mMinColumnSpacing = minColumnSpacing;
+        if (mMinColumnSpacing != minColumnSpacing) {
+            this.mMinColumnSpacing = minColumnSpacing;
+            markGeometryDirty();
+        }
     }
 
     /**
@@ -668,7 +1187,10 @@ public class WaterMark {
      * @param maxColumnSpacing 水印最大列距
      */
     public void setMaxColumnSpacing(float maxColumnSpacing) {
-        this.mMaxColumnSpacing = maxColumnSpacing;
+        if (mMaxColumnSpacing != maxColumnSpacing) {
+            this.mMaxColumnSpacing = maxColumnSpacing;
+            markGeometryDirty();
+        }
     }
 
     /**
@@ -685,6 +1207,27 @@ public class WaterMark {
         this.isEnabled = enabled;
     }
 
+    /**
+     * 返回是否使用共享渲染缓存
+     */
+    public boolean isRenderCacheEnabled() {
+        return isRenderCacheEnabled;
+    }
+
+    /**
+     * 设置是否使用共享渲染缓存，开启后相同配置的水印共享同一张水印单元位图，绘制时平铺填充可见区域
+     * 适用于多个页面使用相同水印配置的场景，参考{@link WaterMarkCache}。动态模板文本刷新期间不使用缓存
+     */
+    public void setRenderCacheEnabled(boolean enabled) {
+        if (isRenderCacheEnabled != enabled) {
+            this.isRenderCacheEnabled = enabled;
+            if (!enabled) {
+                releaseRenderCache();
+            }
+            this.isRenderDirty = true;
+        }
+    }
+
     /**
      * 设置水印区域的padding，单位px
      */
@@ -696,45 +1239,75 @@ public class WaterMark {
      * 设置水印区域的padding，单位px
      */
     public void setDrawPadding(int left, int top, int right, int bottom) {
-        this.mDrawPaddingLeft = left;
-        this.mDrawPaddingTop = top;
-        this.mDrawPaddingRight = right;
-        this.mDrawPaddingBottom = bottom;
+        setDrawPaddingLeft(left);
+        setDrawPaddingTop(top);
+        setDrawPaddingRight(right);
+        setDrawPaddingBottom(bottom);
     }
 
     /**
      * 设置水印区域的paddingLeft，单位px
      */
     public void setDrawPaddingLeft(int left) {
-        this.mDrawPaddingLeft = left;
+        if (mDrawPaddingLeft != left) {
+            this.mDrawPaddingLeft = left;
+            markGeometryDirty();
+        }
     }
 
     /**
      * 设置水印区域的paddingTop，单位px
      */
     public void setDrawPaddingTop(int top) {
-        this.mDrawPaddingTop = top;
+        if (mDrawPaddingTop != top) {
+            this.mDrawPaddingTop = top;
+            markGeometryDirty();
+        }
     }
 
     /**
      * 设置水印区域的paddingRight，单位px
      */
     public void setDrawPaddingRight(int right) {
-        this.mDrawPaddingRight = right;
+        if (mDrawPaddingRight != right) {
+            this.mDrawPaddingRight = right;
+            markGeometryDirty();
+        }
     }
 
     /**
      * 设置水印区域的paddingBottom，单位px
      */
     public void setDrawPaddingBottom(int bottom) {
-        this.mDrawPaddingBottom = bottom;
+        if (mDrawPaddingBottom != bottom) {
+            this.mDrawPaddingBottom = bottom;
+            markGeometryDirty();
+        }
+    }
+
+    /**
+     * 返回最近一次绘制的水印个数，用于统计局部重绘时的绘制开销
+     *
+     * @return 最近一次绘制的水印个数
+     */
+    public int getDrawnCount() {
+        return mDrawnCount;
+    }
+
+    /**
+     * 返回目标View的Context，离屏水印返回null
+     */
+    Context getContext() {
+        return mTargetView == null ? null : mTargetView.getContext();
     }
 
     /**
      * 重绘
      */
     public void invalidate() {
-        this.mTargetView.invalidate();
+        if (mTargetView != null) {
+            this.mTargetView.invalidate();
+        }
     }
 
 }
@@ -0,0 +1,292 @@
+package cn.simonlee.widget.watermark;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import androidx.annotation.MainThread;
+
+/**
+ * 进程级水印渲染缓存，相同配置的水印共享同一张水印单元位图
+ * <p>
+ * 水印单元为水印图案的一个重复周期（两行错位的水印文本），绘制时以重复平铺的BitmapShader填充可见区域，
+ * 位图尺寸与目标View尺寸无关，不同尺寸的水印也可共享。
+ * <p>
+ * 缓存采用引用计数管理：水印使用时引用，目标View分离窗口或配置变化时释放。
+ * 无引用的缓存会保留少量用于页面间切换复用，在{@link ComponentCallbacks2#onTrimMemory(int)}时回收。
+ * <p>
+ * 仅在主线程中使用。
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+@MainThread
+public class WaterMarkCache {
+
+    /**
+     * 默认最多保留的无引用缓存数量
+     */
+    private static final int DEFAULT_MAX_IDLE_COUNT = 2;
+
+    /**
+     * 缓存表，按访问顺序排列，便于淘汰最久未使用的无引用缓存
+     */
+    private static final LinkedHashMap<Key, Entry> sEntries = new LinkedHashMap<>(8, 0.75F, true);
+
+    /**
+     * 最多保留的无引用缓存数量
+     */
+    private static int sMaxIdleCount = DEFAULT_MAX_IDLE_COUNT;
+
+    /**
+     * 是否已注册内存回调
+     */
+    private static boolean isRegistered;
+
+    private WaterMarkCache() {
+    }
+
+    /**
+     * 设置最多保留的无引用缓存数量
+     */
+    public static void setMaxIdleCount(int maxIdleCount) {
+        sMaxIdleCount = Math.max(0, maxIdleCount);
+        trimIdle(sMaxIdleCount);
+    }
+
+    /**
+     * 返回最多保留的无引用缓存数量
+     */
+    public static int getMaxIdleCount() {
+        return sMaxIdleCount;
+    }
+
+    /**
+     * 返回当前缓存数量（含正在使用的）
+     */
+    public static int size() {
+        return sEntries.size();
+    }
+
+    /**
+     * 根据内存等级回收缓存
+     * 后台或界面不可见时回收所有无引用缓存，内存紧张时回收全部缓存，正在使用的缓存在释放后销毁
+     */
+    public static void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            evictAll();
+        } else {
+            trimIdle(0);
+        }
+    }
+
+    /**
+     * 回收全部缓存
+     */
+    public static void evictAll() {
+        Iterator<Entry> iterator = sEntries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            iterator.remove();
+            entry.isEvicted = true;
+            if (entry.refCount <= 0) {
+                entry.bitmap.recycle();
+            }
+        }
+    }
+
+    /**
+     * 获取水印单元缓存，不存在时渲染并加入缓存，引用计数加一
+     * <p>
+     * 调用前水印布局需已计算完成
+     *
+     * @param waterMark  水印
+     * @param tileWidth  水印单元位图宽度
+     * @param tileHeight 水印单元位图高度
+     * @return 水印单元缓存，内存不足时返回null
+     */
+    static Entry acquire(WaterMark waterMark, int tileWidth, int tileHeight) {
+        register(waterMark.getContext());
+        Key key = new Key(waterMark, tileWidth, tileHeight);
+        Entry entry = sEntries.get(key);
+        if (entry == null) {
+            Bitmap bitmap;
+            try {
+                bitmap = Bitmap.createBitmap(tileWidth, tileHeight, Bitmap.Config.ARGB_8888);
+            } catch (OutOfMemoryError e) {
+                trimIdle(0);
+                return null;
+            }
+            Canvas canvas = new Canvas(bitmap);
+            //位图尺寸取整，缩放使一个重复周期恰好填满位图
+            canvas.scale(tileWidth / waterMark.getTileStepX(), tileHeight / (waterMark.getTileStepY() * 2));
+            waterMark.drawWaterMarkTile(canvas);
+            entry = new Entry(key, bitmap);
+            sEntries.put(key, entry);
+        }
+        entry.refCount++;
+        return entry;
+    }
+
+    /**
+     * 释放水印渲染缓存，引用计数减一
+     */
+    static void release(Entry entry) {
+        if (entry == null || entry.refCount <= 0) {
+            return;
+        }
+        entry.refCount--;
+        if (entry.refCount == 0) {
+            if (entry.isEvicted) {
+                entry.bitmap.recycle();
+            } else {
+                trimIdle(sMaxIdleCount);
+            }
+        }
+    }
+
+    /**
+     * 回收无引用的缓存，保留最近使用的maxIdleCount个
+     */
+    private static void trimIdle(int maxIdleCount) {
+        int idleCount = 0;
+        for (Entry entry : sEntries.values()) {
+            if (entry.refCount <= 0) {
+                idleCount++;
+            }
+        }
+        //按访问顺序遍历，优先回收最久未使用的
+        Iterator<Entry> iterator = sEntries.values().iterator();
+        while (idleCount > maxIdleCount && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.refCount <= 0) {
+                iterator.remove();
+                entry.isEvicted = true;
+                entry.bitmap.recycle();
+                idleCount--;
+            }
+        }
+    }
+
+    /**
+     * 注册内存回调
+     */
+    private static void register(Context context) {
+        if (isRegistered || context == null) {
+            return;
+        }
+        isRegistered = true;
+        context.getApplicationContext().registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                trimMemory(level);
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+            }
+
+            @Override
+            public void onLowMemory() {
+                evictAll();
+            }
+        });
+    }
+
+    /**
+     * 水印单元缓存
+     */
+    static final class Entry {
+
+        final Key key;
+
+        final Bitmap bitmap;
+
+        int refCount;
+
+        /**
+         * 是否已被移出缓存，持有者应释放后重新获取
+         */
+        boolean isEvicted;
+
+        Entry(Key key, Bitmap bitmap) {
+            this.key = key;
+            this.bitmap = bitmap;
+        }
+
+    }
+
+    /**
+     * 缓存键，由影响水印单元渲染结果的全部参数组成
+     * <p>
+     * 旋转角度在绘制时应用，行距列距取实际值，因此不包含角度、密度等参数
+     */
+    static final class Key {
+
+        private final String text;
+        private final float textSize;
+        private final int textColor;
+        private final int textBackgroundColor;
+        private final float stepX;
+        private final float stepY;
+        final int width;
+        final int height;
+        private final int hashCode;
+
+        Key(WaterMark waterMark, int width, int height) {
+            this.text = waterMark.getText();
+            this.textSize = waterMark.getTextSize();
+            this.textColor = waterMark.getTextColor();
+            this.textBackgroundColor = waterMark.getTextBackgroundColor();
+            this.stepX = waterMark.getTileStepX();
+            this.stepY = waterMark.getTileStepY();
+            this.width = width;
+            this.height = height;
+            int result = text != null ? text.hashCode() : 0;
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + textColor;
+            result = 31 * result + textBackgroundColor;
+            result = 31 * result + Float.floatToIntBits(stepX);
+            result = 31 * result + Float.floatToIntBits(stepY);
+            result = 31 * result + width;
+            result = 31 * result + height;
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hashCode == key.hashCode
+                    && width == key.width
+                    && height == key.height
+                    && textColor == key.textColor
+                    && textBackgroundColor == key.textBackgroundColor
+                    && Float.compare(textSize, key.textSize) == 0
+                    && Float.compare(stepX, key.stepX) == 0
+                    && Float.compare(stepY, key.stepY) == 0
+                    && (text != null ? text.equals(key.text) : key.text == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+}
@@ -0,0 +1,313 @@
+package cn.simonlee.widget.watermark;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.WorkerThread;
+
+/**
+ * 离屏水印绘制，用于给截图、照片等导出图片添加与屏幕上一致的水印
+ * <p>
+ * 用法：
+ * <p>
+ * 1.在主线程中通过WaterMark创建WaterMarkRenderer，此时会复制水印的画笔及参数；
+ * 2.在子线程中调用render方法，或调用renderAsync方法在内部线程中绘制；
+ * 3.对于编码图片流，按水平条带逐段解码、绘制并回调，峰值内存取决于条带高度而非图片尺寸。
+ * <p>
+ * 注：离屏绘制不使用水印区域边距，水印铺满整张图片。
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class WaterMarkRenderer {
+
+    /**
+     * 条带回调
+     */
+    public interface OnStripListener {
+
+        /**
+         * 一个条带绘制完成，回调返回后条带Bitmap会被复用，如需保留请自行复制
+         *
+         * @param strip  条带Bitmap，宽度为图片宽度，有效内容为顶部height行
+         * @param top    条带在原图中的起始行
+         * @param height 条带有效高度
+         */
+        void onStrip(Bitmap strip, int top, int height) throws IOException;
+
+    }
+
+    /**
+     * 异步绘制结果回调，在主线程中执行
+     */
+    public interface Callback {
+
+        void onComplete();
+
+        void onError(Exception e);
+
+    }
+
+    /**
+     * 默认条带高度
+     */
+    private static final int DEFAULT_STRIP_HEIGHT = 256;
+
+    /**
+     * 离屏绘制线程，串行执行以限制同时存在的条带数量
+     */
+    private static ExecutorService sExecutor;
+
+    /**
+     * 主线程Handler，用于回调异步结果
+     */
+    private static Handler sMainHandler;
+
+    /**
+     * 水印副本，与原水印共享同一套布局计算逻辑
+     */
+    private final WaterMark mWaterMark;
+
+    /**
+     * 条带高度
+     */
+    private int mStripHeight = DEFAULT_STRIP_HEIGHT;
+
+    /**
+     * 条带像素格式
+     */
+    private Bitmap.Config mStripConfig = Bitmap.Config.ARGB_8888;
+
+    /**
+     * 复制水印当前的文本、画笔及参数，之后对原水印的修改不会影响本实例
+     */
+    @MainThread
+    public WaterMarkRenderer(WaterMark waterMark) {
+        this.mWaterMark = new WaterMark(waterMark);
+    }
+
+    /**
+     * 设置条带高度，单位px
+     */
+    public void setStripHeight(int stripHeight) {
+        if (stripHeight < 1) {
+            throw new IllegalArgumentException("The stripHeight must be larger than 0");
+        }
+        this.mStripHeight = stripHeight;
+    }
+
+    /**
+     * 返回条带高度，单位px
+     */
+    public int getStripHeight() {
+        return mStripHeight;
+    }
+
+    /**
+     * 设置条带像素格式，默认ARGB_8888，使用RGB_565可减半条带内存
+     */
+    public void setStripConfig(Bitmap.Config config) {
+        this.mStripConfig = config;
+    }
+
+    /**
+     * 返回条带像素格式
+     */
+    public Bitmap.Config getStripConfig() {
+        return mStripConfig;
+    }
+
+    /**
+     * 直接在可变Bitmap上绘制水印，不额外申请内存
+     *
+     * @param bitmap 可变Bitmap
+     */
+    @WorkerThread
+    public void render(Bitmap bitmap) {
+        if (!bitmap.isMutable()) {
+            throw new IllegalArgumentException("The bitmap must be mutable");
+        }
+        if (!isDrawable()) {
+            return;
+        }
+        mWaterMark.drawWaterMark(new Canvas(bitmap), bitmap.getWidth(), bitmap.getHeight());
+    }
+
+    /**
+     * 按水平条带复制Bitmap并绘制水印，原Bitmap不做修改，适用于不可变Bitmap
+     *
+     * @param source   原图
+     * @param listener 条带回调
+     */
+    @WorkerThread
+    public void render(Bitmap source, OnStripListener listener) throws IOException {
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        final int stripHeight = Math.min(mStripHeight, height);
+        if (width < 1 || stripHeight < 1) {
+            return;
+        }
+        Bitmap strip = Bitmap.createBitmap(width, stripHeight, mStripConfig);
+        Canvas canvas = new Canvas(strip);
+        Rect srcRect = new Rect();
+        Rect dstRect = new Rect();
+        try {
+            for (int top = 0; top < height; top += stripHeight) {
+                final int bottom = Math.min(top + stripHeight, height);
+                srcRect.set(0, top, width, bottom);
+                dstRect.set(0, 0, width, bottom - top);
+                strip.eraseColor(Color.TRANSPARENT);
+                canvas.drawBitmap(source, srcRect, dstRect, null);
+                drawStrip(canvas, width, height, top, bottom);
+                listener.onStrip(strip, top, bottom - top);
+            }
+        } finally {
+            strip.recycle();
+        }
+    }
+
+    /**
+     * 按水平条带解码编码图片流（JPEG、PNG、WEBP）并绘制水印，整张图片不会被完整解码到内存中
+     *
+     * @param input    编码图片流
+     * @param listener 条带回调
+     */
+    @WorkerThread
+    public void render(InputStream input, OnStripListener listener) throws IOException {
+        BitmapRegionDecoder decoder = BitmapRegionDecoder.newInstance(input, false);
+        try {
+            final int width = decoder.getWidth();
+            final int height = decoder.getHeight();
+            final int stripHeight = Math.min(mStripHeight, height);
+            if (width < 1 || stripHeight < 1) {
+                return;
+            }
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inPreferredConfig = mStripConfig;
+            options.inMutable = true;
+            Rect region = new Rect();
+            Bitmap strip = null;
+            try {
+                for (int top = 0; top < height; top += stripHeight) {
+                    final int bottom = Math.min(top + stripHeight, height);
+                    region.set(0, top, width, bottom);
+                    //复用上一个条带的Bitmap，避免每个条带重新申请内存
+                    //SDK19以下inBitmap要求尺寸完全一致，较矮的最后一个条带需单独申请
+                    if (strip != null && Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT && strip.getHeight() != bottom - top) {
+                        strip.recycle();
+                        strip = null;
+                    }
+                    options.inBitmap = strip;
+                    strip = decoder.decodeRegion(region, options);
+                    if (strip == null) {
+                        throw new IOException("Failed to decode region " + region);
+                    }
+                    drawStrip(new Canvas(strip), width, height, top, bottom);
+                    listener.onStrip(strip, top, bottom - top);
+                }
+            } finally {
+                if (strip != null) {
+                    strip.recycle();
+                }
+            }
+        } finally {
+            decoder.recycle();
+        }
+    }
+
+    /**
+     * 在内部线程中按条带解码并绘制水印，结果在主线程回调
+     *
+     * @param input    编码图片流，绘制结束后由调用方关闭
+     * @param listener 条带回调，在内部线程中执行
+     * @param callback 结果回调，在主线程中执行，可为null
+     */
+    public void renderAsync(final InputStream input, final OnStripListener listener, final Callback callback) {
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    render(input, listener);
+                    postResult(callback, null);
+                } catch (Exception e) {
+                    postResult(callback, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 在条带画布上绘制水印，条带以外的水印由裁剪剔除
+     *
+     * @param width  原图宽度
+     * @param height 原图高度
+     * @param top    条带在原图中的起始行
+     * @param bottom 条带在原图中的结束行
+     */
+    private void drawStrip(Canvas canvas, int width, int height, int top, int bottom) {
+        if (!isDrawable()) {
+            return;
+        }
+        canvas.save();
+        canvas.clipRect(0, 0, width, bottom - top);
+        //平移画布，使水印按原图坐标系布局
+        canvas.translate(0, -top);
+        mWaterMark.drawWaterMark(canvas, width, height);
+        canvas.restore();
+    }
+
+    /**
+     * 是否需要绘制水印
+     */
+    private boolean isDrawable() {
+        String text = mWaterMark.getText();
+        return mWaterMark.isEnabled() && text != null && text.length() > 0;
+    }
+
+    private static void postResult(final Callback callback, final Exception e) {
+        if (callback == null) {
+            return;
+        }
+        getMainHandler().post(new Runnable() {
+            @Override
+            public void run() {
+                if (e == null) {
+                    callback.onComplete();
+                } else {
+                    callback.onError(e);
+                }
+            }
+        });
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newSingleThreadExecutor();
+        }
+        return sExecutor;
+    }
+
+    private static synchronized Handler getMainHandler() {
+        if (sMainHandler == null) {
+            sMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return sMainHandler;
+    }
+
+}
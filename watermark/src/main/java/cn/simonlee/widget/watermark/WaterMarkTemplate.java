@@ -0,0 +1,135 @@
+package cn.simonlee.widget.watermark;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 水印文本模板，由静态文本和动态字段组成
+ * <p>
+ * 用法：
+ * <p>
+ * WaterMarkTemplate template = new WaterMarkTemplate()
+ * .append("ID:10086 ")
+ * .append(WaterMarkTemplate.timeField("yyyy-MM-dd HH:mm"));
+ * waterMark.setTextTemplate(template, 60 * 1000);
+ *
+ * @author Simon Lee
+ * @e-mail jmlixiaomeng@163.com
+ * @github https://github.com/Simon-Leeeeeeeee/SLWidget
+ * @createdTime 2026-10-19
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class WaterMarkTemplate {
+
+    /**
+     * 动态字段，每次刷新时获取最新值
+     */
+    public interface Field {
+
+        /**
+         * 返回字段当前值
+         */
+        CharSequence getValue();
+
+    }
+
+    /**
+     * 模板片段，元素为静态文本{@link String}或动态字段{@link Field}
+     */
+    private final List<Object> mParts = new ArrayList<>();
+
+    /**
+     * 用于拼接文本，避免每次刷新创建新的StringBuilder
+     */
+    private final StringBuilder mBuilder = new StringBuilder();
+
+    /**
+     * 追加静态文本
+     */
+    public WaterMarkTemplate append(String text) {
+        if (text != null && text.length() > 0) {
+            mParts.add(text);
+        }
+        return this;
+    }
+
+    /**
+     * 追加动态字段
+     */
+    public WaterMarkTemplate append(Field field) {
+        if (field != null) {
+            mParts.add(field);
+        }
+        return this;
+    }
+
+    /**
+     * 是否包含动态字段
+     */
+    public boolean hasDynamicField() {
+        for (Object part : mParts) {
+            if (part instanceof Field) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按当前字段值拼接文本
+     *
+     * @param current 当前水印文本，若拼接结果与之相同则直接返回，避免创建新的字符串
+     * @return 水印文本
+     */
+    String format(String current) {
+        mBuilder.setLength(0);
+        for (Object part : mParts) {
+            if (part instanceof Field) {
+                CharSequence value = ((Field) part).getValue();
+                if (value != null) {
+                    mBuilder.append(value);
+                }
+            } else {
+                mBuilder.append((String) part);
+            }
+        }
+        if (current != null && current.contentEquals(mBuilder)) {
+            return current;
+        }
+        return mBuilder.toString();
+    }
+
+    /**
+     * 创建时间字段
+     *
+     * @param pattern 时间格式，参考{@link SimpleDateFormat}
+     */
+    public static Field timeField(String pattern) {
+        return new TimeField(pattern);
+    }
+
+    /**
+     * 时间字段，格式化当前时间
+     */
+    private static class TimeField implements Field {
+
+        private final SimpleDateFormat mDateFormat;
+
+        private final Date mDate = new Date();
+
+        private TimeField(String pattern) {
+            mDateFormat = new SimpleDateFormat(pattern, Locale.getDefault());
+        }
+
+        @Override
+        public CharSequence getValue() {
+            mDate.setTime(System.currentTimeMillis());
+            return mDateFormat.format(mDate);
+        }
+
+    }
+
+}